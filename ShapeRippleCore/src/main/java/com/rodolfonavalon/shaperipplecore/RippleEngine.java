@@ -0,0 +1,1020 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore;
+
+import com.rodolfonavalon.shaperipplecore.data.RippleBatch;
+import com.rodolfonavalon.shaperipplecore.data.RippleBuffer;
+import com.rodolfonavalon.shaperipplecore.data.RippleEmitterPool;
+import com.rodolfonavalon.shaperipplecore.data.RippleKeyframeTable;
+import com.rodolfonavalon.shaperipplecore.generator.ColorGenerator;
+import com.rodolfonavalon.shaperipplecore.generator.ColorPool;
+import com.rodolfonavalon.shaperipplecore.generator.PositionGenerator;
+import com.rodolfonavalon.shaperipplecore.generator.PositionPool;
+import com.rodolfonavalon.shaperipplecore.util.ColorTransitionTable;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Headless simulation of the ripples, it has no knowledge of the view system and only
+ * advances the state of each ripple by the animation progress.
+ * <p>
+ * The renderer is responsible for feeding the progress through {@link #render(float)} or
+ * {@link #advance(float)} and drawing each ripple index from 0 to {@link #getEntryCount()}.
+ * <p>
+ * The ripples emitted with {@link #emit(float, float)} come after the periodic ripples so they
+ * are drawn on top of them.
+ */
+public class RippleEngine {
+
+    public static final int NO_VALUE = 0;
+
+    /**
+     * The default ripple interval factor, the more the factor the more the spacing
+     * of each ripple
+     */
+    private static final float DEFAULT_RIPPLE_INTERVAL_FACTOR = 1F;
+
+    /**
+     * The default maximum progress that {@link #renderNanos(long, long)} catches up in a single frame,
+     * the life of a single ripple
+     */
+    public static final float DEFAULT_MAX_CATCH_UP = 1F;
+
+    private static final long NO_TIME = -1;
+
+    /**
+     * Base ripple color, only used when {@link #enableColorTransition} flag is set to false
+     */
+    private int rippleColor;
+
+    /**
+     * End color for the color transition of the ripple, only
+     * used when {@link #enableColorTransition} flag is set to true
+     */
+    private int rippleToColor;
+
+    /**
+     * Base stroke width for each of the ripple, used to calculate the default ripple count
+     */
+    private int rippleStrokeWidth = 1;
+
+    /**
+     * Ripple interval handles the actual timing of each spacing
+     * of ripples in the list, calculated in {@link #initializeEntries()}
+     */
+    private float rippleInterval;
+
+    /**
+     * Ripple maximum radius that will be used instead of the pre-calculated value, default value is
+     * the size of the layout.
+     */
+    private float rippleMaximumRadius;
+
+    /**
+     * Ripple count that will be rendered in the layout, default value is calculated based on the
+     * layout_width / ripple_width
+     */
+    private int rippleCount;
+
+    /**
+     * The width of the area where the ripples are rendered
+     */
+    private int viewWidth;
+
+    /**
+     * The height of the area where the ripples are rendered
+     */
+    private int viewHeight;
+
+    /**
+     * The maximum radius of the ripple which is calculated in the {@link #initializeEntries()}
+     */
+    private int maxRippleRadius;
+
+    /**
+     * The last multiplier value given to {@link #render(float)}
+     */
+    private float lastMultiplierValue = 0f;
+
+    /**
+     * The last frame time given to {@link #renderNanos(long, long)}
+     */
+    private long lastFrameTimeNanos = NO_TIME;
+
+    /**
+     * The maximum progress that {@link #renderNanos(long, long)} catches up in a single frame
+     */
+    private float maxCatchUp = DEFAULT_MAX_CATCH_UP;
+
+    /**
+     * Enables the color transition for each ripple, it is true by default
+     */
+    private boolean enableColorTransition = true;
+
+    /**
+     * Enables the single ripple, it is false by default
+     */
+    private boolean enableSingleRipple = false;
+
+    /**
+     * Enables the random positioning of the ripple, it is false by default
+     */
+    private boolean enableRandomPosition = false;
+
+    /**
+     * Enable the random color of the ripple, it is false by default
+     */
+    private boolean enableRandomColor = false;
+
+    /**
+     * The states of the ripples which is advanced in {@link #advance(float)}
+     */
+    private final RippleBuffer rippleBuffer;
+
+    /**
+     * The ripples emitted at arbitrary positions, advanced together with the {@link #rippleBuffer}
+     */
+    private final RippleEmitterPool emitterPool;
+
+    /**
+     * The developer predefined random colors which is used when {@link #enableRandomColor} is set to true.
+     */
+    private int[] rippleRandomColors;
+
+    /**
+     * The precomputed color transitions from the original colors to the {@link #rippleToColor}
+     */
+    private final ColorTransitionTable colorTransitionTable;
+
+    /**
+     * Flag for when the colors changed and the {@link #colorTransitionTable} needs to be rebuilt
+     */
+    private boolean isColorTableDirty = true;
+
+    /**
+     * The number of keyframes of each ripple interval, {@link #NO_VALUE} disables the keyframes.
+     * See {@link #isKeyframeTimeline()}
+     */
+    private int keyframeResolution;
+
+    /**
+     * The precomputed radius and color of a ripple over its whole life, used when {@link #isKeyframeTimeline()} is true
+     */
+    private final RippleKeyframeTable keyframeTable;
+
+    /**
+     * The {@link #configurationVersion} when the {@link #keyframeTable} was built
+     */
+    private int keyframeTableVersion = -1;
+
+    /**
+     * The number of ripples that finished and started again since the engine was created
+     */
+    private long recycledCount;
+
+    /**
+     * Incremented every time the configuration changes, used to detect changes without comparing every value
+     */
+    private int configurationVersion;
+
+    /**
+     * The strategy of the positions when {@link #enableRandomPosition} is set to true
+     */
+    private PositionGenerator positionGenerator;
+
+    /**
+     * The strategy of the colors when {@link #enableRandomColor} is set to true
+     */
+    private ColorGenerator colorGenerator;
+
+    public RippleEngine() {
+        this(new Random());
+    }
+
+    /**
+     * @param random The random seeding the default {@link PositionPool#random(long, int)} and {@link ColorPool#random(long, int)}
+     */
+    public RippleEngine(Random random) {
+        this.positionGenerator = PositionPool.random(random.nextLong(), PositionPool.DEFAULT_POOL_SIZE);
+        this.colorGenerator = ColorPool.random(random.nextLong(), ColorPool.DEFAULT_POOL_SIZE);
+        this.rippleBuffer = new RippleBuffer();
+        this.emitterPool = new RippleEmitterPool();
+        this.rippleRandomColors = new int[0];
+        this.colorTransitionTable = new ColorTransitionTable();
+        this.keyframeTable = new RippleKeyframeTable();
+    }
+
+    /**
+     * This method will initialize the ripples with
+     * initial position, color, and multiplier value.
+     * <p>
+     * Nothing is created when the size of the rendering area is not yet known.
+     */
+    public void initializeEntries() {
+        if (viewWidth == 0 && viewHeight == 0) {
+            return;
+        }
+
+        // the ripple radius based on the x or y
+        maxRippleRadius = rippleMaximumRadius != NO_VALUE ? (int) rippleMaximumRadius :
+                (Math.min(viewWidth, viewHeight) / 2 - (rippleStrokeWidth / 2));
+
+        // Calculate the max number of ripples
+        rippleCount = rippleCount > NO_VALUE ? rippleCount : maxRippleRadius / rippleStrokeWidth;
+
+        // Calculate the interval of ripples
+        rippleInterval = DEFAULT_RIPPLE_INTERVAL_FACTOR / rippleCount;
+
+        configurationVersion++;
+
+        // the last progress is kept so the new ripples only advance by the next frame of the animation
+        lastFrameTimeNanos = NO_TIME;
+
+        // we only render 1 ripple when it is enabled
+        rippleBuffer.resize(enableSingleRipple ? 1 : rippleCount);
+        positionGenerator.setSize(viewWidth, viewHeight);
+
+        for (int i = 0; i < rippleBuffer.size(); i++) {
+            nextPosition(i);
+            rippleBuffer.setMultiplierValue(i, -(rippleInterval * (float) i));
+            rippleBuffer.setOriginalColorValue(i, nextOriginalColor());
+        }
+    }
+
+    /**
+     * Refreshes the colors of the entries after certain options are changed such as the {@link #rippleColor},
+     * {@link #enableRandomColor}, etc.
+     * <p>
+     * This will only execute after the {@link #initializeEntries()}, this is safe to call before it.
+     *
+     * @return False when the entries were not yet initialized
+     */
+    public boolean reconfigureEntries() {
+
+        // we do not re configure when dimension is not calculated
+        // or if the list is empty
+        if (viewWidth == 0 && viewHeight == 0 && rippleBuffer.size() == 0) {
+            return false;
+        }
+
+        for (int i = 0; i < rippleBuffer.size(); i++) {
+            rippleBuffer.setOriginalColorValue(i, nextOriginalColor());
+        }
+        return true;
+    }
+
+    /**
+     * Removes all the entries, they are created again on the next {@link #initializeEntries()}
+     */
+    public void clearEntries() {
+        rippleBuffer.clear();
+        emitterPool.clear();
+    }
+
+    /**
+     * Starts a ripple at the position which is advanced and drawn together with the periodic ripples,
+     * the ripple lives for the duration of a single ripple.
+     * <p>
+     * Nothing is allocated, when the emitter pool is full the {@link RippleEmitterPool#getOverflowPolicy()}
+     * either drops the oldest emitted ripple or rejects this one.
+     *
+     * @param x The X position of the ripple
+     * @param y The Y position of the ripple
+     * @return False when the ripple is rejected or the entries are not initialized
+     */
+    public boolean emit(float x, float y) {
+        if (rippleBuffer.size() == 0) {
+            return false;
+        }
+
+        return emitterPool.emit(x, y, nextOriginalColor());
+    }
+
+    /**
+     * Renders the entries with the current progress of the animation, the difference to the
+     * last given progress is used to {@link #advance(float)} the ripples. A progress lower than
+     * the last one does not move the ripples back.
+     *
+     * @param multiplierValue the current progress of the animation from 0 to 1
+     * @return False when there are no entries to render
+     */
+    public boolean render(float multiplierValue) {
+        return render(multiplierValue, false);
+    }
+
+    /**
+     * Renders the entries with the current progress of the animation, see {@link #render(float)}.
+     * <p>
+     * When the animation repeated since the last progress, the time until the end of the last cycle
+     * is not lost. The repeat can not be told from the progress since an interpolator can move it
+     * back within a cycle, so it is detected by the caller from the progress before interpolation.
+     *
+     * @param multiplierValue the current progress of the animation from 0 to 1
+     * @param isRepeated True when the animation started a new cycle since the last progress
+     * @return False when there are no entries to render
+     */
+    public boolean render(float multiplierValue, boolean isRepeated) {
+
+        // Do not render when entries are empty
+        if (rippleBuffer.size() == 0) {
+            return false;
+        }
+
+        float delta = isRepeated
+                ? 1f - lastMultiplierValue + multiplierValue
+                : multiplierValue - lastMultiplierValue;
+        advance(Math.max(delta, 0));
+
+        // save the last multiplier value
+        lastMultiplierValue = multiplierValue;
+        return true;
+    }
+
+    /**
+     * Renders the entries by the real time elapsed since the last frame, the ripples advance exactly by
+     * the elapsed time whatever the number of dropped frames. The catch up of a single frame is capped
+     * by {@link #getMaxCatchUp()} so the ripples do not jump after a long stall.
+     * <p>
+     * The first frame after {@link #initializeEntries()} or {@link #resetFrameTime()} only records the time.
+     *
+     * @param frameTimeNanos The time of the frame in nanoseconds, such as the vsync time
+     * @param durationNanos The duration of a single ripple in nanoseconds
+     * @return False when there are no entries to render
+     */
+    public boolean renderNanos(long frameTimeNanos, long durationNanos) {
+
+        // Do not render when entries are empty
+        if (rippleBuffer.size() == 0) {
+            return false;
+        }
+
+        float delta = 0;
+        if (lastFrameTimeNanos != NO_TIME && durationNanos > 0) {
+            long elapsedNanos = Math.max(frameTimeNanos - lastFrameTimeNanos, 0);
+            delta = Math.min(elapsedNanos / (float) durationNanos, maxCatchUp);
+        }
+
+        advance(delta);
+
+        lastFrameTimeNanos = frameTimeNanos;
+        return true;
+    }
+
+    /**
+     * Forgets the last frame time of {@link #renderNanos(long, long)}, the time until the next frame is
+     * not simulated. Used when the animation is paused.
+     */
+    public void resetFrameTime() {
+        lastFrameTimeNanos = NO_TIME;
+    }
+
+    /**
+     * This is the main simulation for the ripples, we always check that the first ripple is already
+     * finished.
+     * <p>
+     * When the ripple is finished it is reset and moved to the end of the {@link #rippleBuffer} to be reused
+     * all over again, the index of every other ripple is shifted by one without moving any data.
+     * <p>
+     * Each ripple will be configured to be either rendered or not rendered to prevent extra rendering process.
+     *
+     * @param delta the progress to advance the ripples, 1 is the duration of a single ripple
+     */
+    public void advance(float delta) {
+
+        int size = rippleBuffer.size();
+        if (size == 0) {
+            return;
+        }
+
+        if (enableColorTransition && isColorTableDirty) {
+            rebuildColorTable();
+        }
+
+        if (emitterPool.size() > 0) {
+            advanceEmitted(delta);
+        }
+
+        // Calculate the multiplier value of the first entry
+        float firstEntryMultiplierValue = rippleBuffer.getMultiplierValue(0) + delta;
+
+        // every ripple is started, the rest of the animation is periodic
+        if (isKeyframeTimeline() && firstEntryMultiplierValue - rippleInterval * (size - 1) >= 0) {
+            advanceKeyframes(firstEntryMultiplierValue);
+            return;
+        }
+
+        // Check if the first entry is done the ripple (happens when the ripple reaches to end),
+        // a long step can finish several ripples at once
+        if (firstEntryMultiplierValue >= 1.0f) {
+            int finishedCount = enableSingleRipple ? 1 : getFinishedCount(firstEntryMultiplierValue);
+
+            // Calculate the new multiplier value of the first entry of the list, each one started one interval later
+            firstEntryMultiplierValue = enableSingleRipple ? 0 : firstEntryMultiplierValue - rippleInterval * finishedCount;
+            recycledCount += finishedCount;
+
+            // every entry is started again at most once, even when more ripples are finished
+            int recycleCount = Math.min(finishedCount, size);
+            for (int i = 0; i < recycleCount; i++) {
+
+                // Relocate the first entry to the last entry
+                rippleBuffer.recycleFirst();
+                rippleBuffer.setOriginalColorValue(size - 1, nextOriginalColor());
+                nextPosition(0);
+            }
+        }
+
+        for (int index = 0; index < size; index++) {
+
+            // calculate the shape multiplier by index
+            float currentEntryMultiplier = firstEntryMultiplierValue - rippleInterval * index;
+
+            // Check if we render the current ripple in the list
+            // We render when the multiplier value is >= 0
+            if (currentEntryMultiplier < 0) {
+                // We continue to the next item
+                // since we know that we do not
+                // need the calculations below
+                rippleBuffer.setRender(index, false);
+                continue;
+            }
+
+            // calculate the color if we enabled the color transition
+            int color = enableColorTransition
+                    ? colorTransitionTable.evaluate(currentEntryMultiplier, rippleBuffer.getOriginalColorValue(index))
+                    : rippleColor;
+
+            // calculate the current ripple size
+            rippleBuffer.setRendered(index, currentEntryMultiplier, maxRippleRadius * currentEntryMultiplier, color);
+        }
+    }
+
+    /**
+     * Advances the ripples of the {@link #emitterPool}, the finished ripples are released
+     *
+     * @param delta the progress to advance the ripples, 1 is the duration of a single ripple
+     */
+    private void advanceEmitted(float delta) {
+        emitterPool.advance(delta);
+
+        for (int index = 0; index < emitterPool.size(); index++) {
+            float multiplierValue = emitterPool.getMultiplierValue(index);
+
+            int color = enableColorTransition
+                    ? colorTransitionTable.evaluate(multiplierValue, emitterPool.getOriginalColorValue(index))
+                    : rippleColor;
+
+            emitterPool.setRendered(index, maxRippleRadius * multiplierValue, color);
+        }
+    }
+
+    /**
+     * Advances the ripples by reading the {@link #keyframeTable}, the ripples are not recycled since every
+     * ripple has the same position and color so only the multiplier of the first entry is wrapped.
+     *
+     * @param firstEntryMultiplierValue The advanced multiplier value of the first entry
+     */
+    private void advanceKeyframes(float firstEntryMultiplierValue) {
+        if (keyframeTableVersion != configurationVersion) {
+            rebuildKeyframeTable();
+        }
+
+        // the first entry is recycled every time it is finished
+        if (firstEntryMultiplierValue >= 1.0f) {
+            int finishedCount = getFinishedCount(firstEntryMultiplierValue);
+            firstEntryMultiplierValue -= rippleInterval * finishedCount;
+            recycledCount += finishedCount;
+        }
+
+        int size = rippleBuffer.size();
+        int framesPerInterval = keyframeTable.getFramesPerInterval();
+
+        // the progress of the last entry is the progress of the ripple interval
+        float phase = (firstEntryMultiplierValue - rippleInterval * (size - 1)) / rippleInterval;
+        int frame = Math.min(Math.max((int) (phase * framesPerInterval), 0), framesPerInterval - 1);
+
+        for (int index = 0; index < size; index++) {
+            int keyframe = (size - 1 - index) * framesPerInterval + frame;
+
+            rippleBuffer.setRendered(index, firstEntryMultiplierValue - rippleInterval * index,
+                    keyframeTable.getRadiusSize(keyframe), keyframeTable.getColor(keyframe));
+        }
+    }
+
+    /**
+     * Counts the ripples that are finished without stepping through them, so a long step takes the same time as a short one
+     *
+     * @param firstEntryMultiplierValue The advanced multiplier value of the first entry, at least 1
+     * @return The number of intervals to remove so the first entry is not finished
+     */
+    private int getFinishedCount(float firstEntryMultiplierValue) {
+        int finishedCount = (int) ((firstEntryMultiplierValue - 1.0f) / rippleInterval) + 1;
+
+        // the rounding of the division can be one interval short
+        if (firstEntryMultiplierValue - rippleInterval * finishedCount >= 1.0f) {
+            finishedCount++;
+        }
+        return finishedCount;
+    }
+
+    /**
+     * Samples the radius and color of a ripple over its whole life into the {@link #keyframeTable}
+     */
+    private void rebuildKeyframeTable() {
+        keyframeTable.resize(rippleBuffer.size(), keyframeResolution);
+
+        int keyframeCount = keyframeTable.getKeyframeCount();
+        for (int keyframe = 0; keyframe < keyframeCount; keyframe++) {
+            float multiplierValue = keyframe / (float) keyframeCount;
+
+            int color = enableColorTransition
+                    ? colorTransitionTable.evaluate(multiplierValue, rippleColor)
+                    : rippleColor;
+
+            keyframeTable.set(keyframe, maxRippleRadius * multiplierValue, color);
+        }
+
+        keyframeTableVersion = configurationVersion;
+    }
+
+    /**
+     * The keyframes are only used when every ripple has the same position and color, and the life of
+     * a ripple is exactly the number of ripples times the interval.
+     *
+     * @return True when the ripples are advanced from the precomputed keyframes
+     */
+    public boolean isKeyframeTimeline() {
+        return keyframeResolution > NO_VALUE
+                && !enableRandomPosition
+                && !enableRandomColor
+                && !enableSingleRipple
+                && rippleBuffer.size() == rippleCount;
+    }
+
+    /**
+     * Rebuilds the {@link #colorTransitionTable} for every color that a ripple can start with
+     */
+    private void rebuildColorTable() {
+        int colorCount = enableRandomColor ? rippleRandomColors.length : 0;
+        int[] startColors = new int[colorCount + 1];
+
+        startColors[0] = rippleColor;
+        System.arraycopy(rippleRandomColors, 0, startColors, 1, colorCount);
+
+        colorTransitionTable.rebuild(startColors, startColors.length, rippleToColor);
+        isColorTableDirty = false;
+    }
+
+    /**
+     * Copies the configuration of another engine, the entries are not copied and
+     * needs to be created again with {@link #initializeEntries()}
+     * <p>
+     * The generators are shared with the other engine, an engine that is used by another thread
+     * needs its own {@link PositionGenerator#copy()} and {@link ColorGenerator#copy()}.
+     *
+     * @param engine The engine to copy from
+     */
+    public void copyConfiguration(RippleEngine engine) {
+        this.viewWidth = engine.viewWidth;
+        this.viewHeight = engine.viewHeight;
+        this.rippleMaximumRadius = engine.rippleMaximumRadius;
+        this.rippleCount = engine.rippleCount;
+        this.rippleStrokeWidth = engine.rippleStrokeWidth;
+        this.rippleColor = engine.rippleColor;
+        this.rippleToColor = engine.rippleToColor;
+        this.enableColorTransition = engine.enableColorTransition;
+        this.enableSingleRipple = engine.enableSingleRipple;
+        this.enableRandomPosition = engine.enableRandomPosition;
+        this.enableRandomColor = engine.enableRandomColor;
+        this.rippleRandomColors = engine.rippleRandomColors;
+        this.positionGenerator = engine.positionGenerator;
+        this.colorGenerator = engine.colorGenerator;
+        this.keyframeResolution = engine.keyframeResolution;
+
+        // the emitted ripples are kept when the capacity is the same
+        if (emitterPool.getCapacity() != engine.emitterPool.getCapacity()) {
+            emitterPool.setCapacity(engine.emitterPool.getCapacity());
+        }
+        emitterPool.setOverflowPolicy(engine.emitterPool.getOverflowPolicy());
+        this.isColorTableDirty = true;
+        this.configurationVersion++;
+    }
+
+    /**
+     * @param engine The engine to compare with
+     * @return True when both engines produce the same ripples from the same progress, ignoring randomness
+     */
+    public boolean hasSameConfiguration(RippleEngine engine) {
+        return viewWidth == engine.viewWidth
+                && viewHeight == engine.viewHeight
+                && rippleMaximumRadius == engine.rippleMaximumRadius
+                && rippleCount == engine.rippleCount
+                && rippleStrokeWidth == engine.rippleStrokeWidth
+                && rippleColor == engine.rippleColor
+                && enableColorTransition == engine.enableColorTransition
+                && (!enableColorTransition || rippleToColor == engine.rippleToColor)
+                && enableSingleRipple == engine.enableSingleRipple
+                && enableRandomPosition == engine.enableRandomPosition
+                && (!enableRandomPosition || positionGenerator == engine.positionGenerator)
+                && enableRandomColor == engine.enableRandomColor
+                && (!enableRandomColor || (colorGenerator == engine.colorGenerator
+                        && Arrays.equals(rippleRandomColors, engine.rippleRandomColors)))
+                && keyframeResolution == engine.keyframeResolution
+                && emitterPool.getCapacity() == engine.emitterPool.getCapacity()
+                && emitterPool.getOverflowPolicy() == engine.emitterPool.getOverflowPolicy();
+    }
+
+    /**
+     * @return The number of ripples that finished and started again since the engine was created
+     */
+    public long getRecycledCount() {
+        return recycledCount;
+    }
+
+    /**
+     * @return The version of the configuration, it changes every time a configuration is changed
+     */
+    public int getConfigurationVersion() {
+        return configurationVersion;
+    }
+
+    /**
+     * @return The original color of a newly started ripple
+     */
+    private int nextOriginalColor() {
+        return enableRandomColor && rippleRandomColors.length > 0
+                ? colorGenerator.nextColor(rippleRandomColors)
+                : rippleColor;
+    }
+
+    /**
+     * Moves a newly started ripple to its position
+     *
+     * @param index The index of the ripple
+     */
+    private void nextPosition(int index) {
+        if (!enableRandomPosition) {
+            rippleBuffer.setPosition(index, viewWidth / 2, viewHeight / 2);
+            return;
+        }
+
+        positionGenerator.next();
+        rippleBuffer.setPosition(index, positionGenerator.getX(), positionGenerator.getY());
+    }
+
+    /**
+     * @return The number of ripples including the emitted ripples, the ripple index 0 is the outer most ripple
+     */
+    public int getEntryCount() {
+        return rippleBuffer.size() + emitterPool.size();
+    }
+
+    /**
+     * @return The number of ripples emitted with {@link #emit(float, float)} that are still alive
+     */
+    public int getEmittedCount() {
+        return emitterPool.size();
+    }
+
+    /**
+     * @return The number of emitted ripples that were dropped or rejected because the emitter pool was full
+     */
+    public long getEmitterOverflowCount() {
+        return emitterPool.getOverflowCount();
+    }
+
+    /**
+     * Collects the ripples that should be drawn in the current frame
+     *
+     * @param batch The batch where the ripples are written from the outer most ripple
+     */
+    public void fillBatch(RippleBatch batch) {
+        fillBatch(batch, 1);
+    }
+
+    /**
+     * Collects only every n-th ripple that should be drawn in the current frame, the emitted ripples are always
+     * collected. A ripple keeps its turn when the ripples are recycled so the same ripples are skipped in every
+     * frame, and the skipped ripples keep running so they are drawn again with their phase when the stride is 1.
+     *
+     * @param batch The batch where the ripples are written from the outer most ripple
+     * @param rippleStride The stride of the collected ripples, 1 collects every ripple
+     */
+    public void fillBatch(RippleBatch batch, int rippleStride) {
+        if (rippleStride <= 0) {
+            throw new IllegalArgumentException("Ripple stride must be > 0");
+        }
+
+        int size = rippleBuffer.size();
+        int emittedCount = emitterPool.size();
+        batch.reset(size + emittedCount);
+
+        for (int index = 0; index < size; index++) {
+            // the recycled count makes the turn of a ripple independent of its current index
+            if (rippleBuffer.isRender(index) && (recycledCount + index) % rippleStride == 0) {
+                batch.add(rippleBuffer.getX(index), rippleBuffer.getY(index), rippleBuffer.getRadiusSize(index),
+                        rippleBuffer.getChangingColorValue(index), index);
+            }
+        }
+
+        for (int index = 0; index < emittedCount; index++) {
+            batch.add(emitterPool.getX(index), emitterPool.getY(index), emitterPool.getRadiusSize(index),
+                    emitterPool.getChangingColorValue(index), size + index);
+        }
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return True when the ripple should be drawn
+     */
+    public boolean isRender(int index) {
+        int size = rippleBuffer.size();
+        return index >= size || rippleBuffer.isRender(index);
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The X position of the ripple
+     */
+    public float getX(int index) {
+        int size = rippleBuffer.size();
+        return index < size ? rippleBuffer.getX(index) : emitterPool.getX(index - size);
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The Y position of the ripple
+     */
+    public float getY(int index) {
+        int size = rippleBuffer.size();
+        return index < size ? rippleBuffer.getY(index) : emitterPool.getY(index - size);
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The current radius size of the ripple
+     */
+    public float getRadiusSize(int index) {
+        int size = rippleBuffer.size();
+        return index < size ? rippleBuffer.getRadiusSize(index) : emitterPool.getRadiusSize(index - size);
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The current color of the ripple
+     */
+    public int getColor(int index) {
+        int size = rippleBuffer.size();
+        return index < size ? rippleBuffer.getChangingColorValue(index) : emitterPool.getChangingColorValue(index - size);
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The current multiplier value of the ripple
+     */
+    public float getMultiplierValue(int index) {
+        int size = rippleBuffer.size();
+        return index < size ? rippleBuffer.getMultiplierValue(index) : emitterPool.getMultiplierValue(index - size);
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The color of the ripple before any color transition
+     */
+    public int getOriginalColor(int index) {
+        int size = rippleBuffer.size();
+        return index < size ? rippleBuffer.getOriginalColorValue(index) : emitterPool.getOriginalColorValue(index - size);
+    }
+
+    /**
+     * Change the size of the area where the ripples are rendered
+     *
+     * @param viewWidth The width in pixel
+     * @param viewHeight The height in pixel
+     */
+    public void setViewSize(int viewWidth, int viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.configurationVersion++;
+    }
+
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    /**
+     * @return The max ripple radius calculated in {@link #initializeEntries()}
+     */
+    public int getMaxRippleRadius() {
+        return maxRippleRadius;
+    }
+
+    public float getRippleMaximumRadius() {
+        return rippleMaximumRadius;
+    }
+
+    public void setRippleMaximumRadius(float rippleMaximumRadius) {
+        this.rippleMaximumRadius = rippleMaximumRadius;
+        this.configurationVersion++;
+    }
+
+    public int getRippleCount() {
+        return rippleCount;
+    }
+
+    public void setRippleCount(int rippleCount) {
+        this.rippleCount = rippleCount;
+        this.configurationVersion++;
+    }
+
+    public int getRippleStrokeWidth() {
+        return rippleStrokeWidth;
+    }
+
+    public void setRippleStrokeWidth(int rippleStrokeWidth) {
+        this.rippleStrokeWidth = rippleStrokeWidth;
+        this.configurationVersion++;
+    }
+
+    public float getRippleInterval() {
+        return rippleInterval;
+    }
+
+    public int getRippleColor() {
+        return rippleColor;
+    }
+
+    public void setRippleColor(int rippleColor) {
+        this.rippleColor = rippleColor;
+        this.isColorTableDirty = true;
+        this.configurationVersion++;
+    }
+
+    public int getRippleToColor() {
+        return rippleToColor;
+    }
+
+    public void setRippleToColor(int rippleToColor) {
+        this.rippleToColor = rippleToColor;
+        this.isColorTableDirty = true;
+        this.configurationVersion++;
+    }
+
+    public boolean isEnableColorTransition() {
+        return enableColorTransition;
+    }
+
+    public void setEnableColorTransition(boolean enableColorTransition) {
+        this.enableColorTransition = enableColorTransition;
+        this.configurationVersion++;
+    }
+
+    public boolean isEnableSingleRipple() {
+        return enableSingleRipple;
+    }
+
+    public void setEnableSingleRipple(boolean enableSingleRipple) {
+        this.enableSingleRipple = enableSingleRipple;
+        this.configurationVersion++;
+    }
+
+    public boolean isEnableRandomPosition() {
+        return enableRandomPosition;
+    }
+
+    public void setEnableRandomPosition(boolean enableRandomPosition) {
+        this.enableRandomPosition = enableRandomPosition;
+        this.configurationVersion++;
+    }
+
+    public boolean isEnableRandomColor() {
+        return enableRandomColor;
+    }
+
+    public void setEnableRandomColor(boolean enableRandomColor) {
+        this.enableRandomColor = enableRandomColor;
+        this.isColorTableDirty = true;
+        this.configurationVersion++;
+    }
+
+    public int[] getRippleRandomColors() {
+        return rippleRandomColors;
+    }
+
+    /**
+     * Change the developer predefined random colors, the array is not copied and must not be changed afterwards
+     *
+     * @param rippleRandomColors The colors
+     */
+    public void setRippleRandomColors(int[] rippleRandomColors) {
+        this.rippleRandomColors = rippleRandomColors;
+        this.isColorTableDirty = true;
+        this.configurationVersion++;
+    }
+
+    public int getKeyframeResolution() {
+        return keyframeResolution;
+    }
+
+    /**
+     * Change the number of keyframes of each ripple interval, the ripples repeat every interval once every
+     * ripple is started so a single interval is precomputed. {@link #NO_VALUE} disables the keyframes.
+     *
+     * @param keyframeResolution The number of keyframes of each ripple interval
+     */
+    public void setKeyframeResolution(int keyframeResolution) {
+        this.keyframeResolution = keyframeResolution;
+        this.configurationVersion++;
+    }
+
+    public int getEmitterCapacity() {
+        return emitterPool.getCapacity();
+    }
+
+    /**
+     * Change the maximum number of emitted ripples that are alive at the same time, the emitted ripples are removed
+     *
+     * @param capacity The maximum number of emitted ripples
+     */
+    public void setEmitterCapacity(int capacity) {
+        emitterPool.setCapacity(capacity);
+    }
+
+    public int getEmitterOverflowPolicy() {
+        return emitterPool.getOverflowPolicy();
+    }
+
+    /**
+     * Change what happens to a ripple emitted while the emitter pool is full
+     *
+     * @param overflowPolicy {@link RippleEmitterPool#OVERFLOW_DROP_OLDEST} or {@link RippleEmitterPool#OVERFLOW_REJECT}
+     */
+    public void setEmitterOverflowPolicy(int overflowPolicy) {
+        emitterPool.setOverflowPolicy(overflowPolicy);
+    }
+
+    public float getMaxCatchUp() {
+        return maxCatchUp;
+    }
+
+    /**
+     * Change the maximum progress that {@link #renderNanos(long, long)} catches up in a single frame, the
+     * time over it is dropped. By default it is {@value #DEFAULT_MAX_CATCH_UP}, the life of a single ripple.
+     *
+     * @param maxCatchUp The maximum progress, 1 is the duration of a single ripple
+     */
+    public void setMaxCatchUp(float maxCatchUp) {
+        if (!(maxCatchUp > 0) || Float.isInfinite(maxCatchUp)) {
+            throw new IllegalArgumentException("Max catch up must be a finite value > 0");
+        }
+
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    public PositionGenerator getPositionGenerator() {
+        return positionGenerator;
+    }
+
+    /**
+     * Change the strategy of the positions when the random position is enabled
+     *
+     * @param positionGenerator The strategy of the positions
+     */
+    public void setPositionGenerator(PositionGenerator positionGenerator) {
+        this.positionGenerator = positionGenerator;
+        this.positionGenerator.setSize(viewWidth, viewHeight);
+        this.configurationVersion++;
+    }
+
+    public ColorGenerator getColorGenerator() {
+        return colorGenerator;
+    }
+
+    /**
+     * Change the strategy of the colors when the random color is enabled
+     *
+     * @param colorGenerator The strategy of the colors
+     */
+    public void setColorGenerator(ColorGenerator colorGenerator) {
+        this.colorGenerator = colorGenerator;
+        this.configurationVersion++;
+    }
+}
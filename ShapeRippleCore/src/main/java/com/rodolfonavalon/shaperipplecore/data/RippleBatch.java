@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.data;
+
+/**
+ * The visible ripples of a single frame packed into parallel primitive arrays from the
+ * outer most ripple to the inner most, so a renderer can draw all of them at once.
+ * <p>
+ * The arrays are reused between frames and can be longer than {@link #size()}.
+ */
+public class RippleBatch {
+
+    private float[] x = new float[0];
+
+    private float[] y = new float[0];
+
+    private float[] radius = new float[0];
+
+    private int[] color = new int[0];
+
+    /**
+     * The ripple index of each ripple in the batch
+     */
+    private int[] rippleIndex = new int[0];
+
+    /**
+     * The number of ripples in the batch
+     */
+    private int size;
+
+    /**
+     * Removes all the ripples and makes sure the arrays can hold the capacity
+     *
+     * @param capacity The maximum number of ripples that will be added
+     */
+    public void reset(int capacity) {
+        if (capacity > x.length) {
+            x = new float[capacity];
+            y = new float[capacity];
+            radius = new float[capacity];
+            color = new int[capacity];
+            rippleIndex = new int[capacity];
+        }
+
+        size = 0;
+    }
+
+    /**
+     * Adds a ripple at the end of the batch, the capacity must be reserved with {@link #reset(int)}
+     */
+    public void add(float x, float y, float radiusSize, int color, int rippleIndex) {
+        this.x[size] = x;
+        this.y[size] = y;
+        this.radius[size] = radiusSize;
+        this.color[size] = color;
+        this.rippleIndex[size] = rippleIndex;
+        size++;
+    }
+
+    /**
+     * Replaces the ripples with a copy of the ripples of another batch
+     *
+     * @param batch The batch to copy from
+     */
+    public void copyFrom(RippleBatch batch) {
+        reset(batch.size);
+
+        System.arraycopy(batch.x, 0, x, 0, batch.size);
+        System.arraycopy(batch.y, 0, y, 0, batch.size);
+        System.arraycopy(batch.radius, 0, radius, 0, batch.size);
+        System.arraycopy(batch.color, 0, color, 0, batch.size);
+        System.arraycopy(batch.rippleIndex, 0, rippleIndex, 0, batch.size);
+        size = batch.size;
+    }
+
+    /**
+     * Moves a ripple to a lower position, used to remove ripples from the batch while iterating it
+     *
+     * @param from The position of the ripple
+     * @param to The new position of the ripple, it is not greater than the from position
+     */
+    public void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        radius[to] = radius[from];
+        color[to] = color[from];
+        rippleIndex[to] = rippleIndex[from];
+    }
+
+    /**
+     * Removes the ripples after the size
+     *
+     * @param size The new number of ripples, it is not greater than the current size
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return The number of ripples in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public float[] getX() {
+        return x;
+    }
+
+    public float[] getY() {
+        return y;
+    }
+
+    public float[] getRadiusSize() {
+        return radius;
+    }
+
+    public int[] getColor() {
+        return color;
+    }
+
+    public int[] getRippleIndex() {
+        return rippleIndex;
+    }
+}
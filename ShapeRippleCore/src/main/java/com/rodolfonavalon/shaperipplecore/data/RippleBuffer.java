@@ -0,0 +1,220 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.data;
+
+import com.rodolfonavalon.shaperipplecore.util.ColorUtil;
+
+/**
+ * Ring buffer of ripple states stored as parallel primitive arrays.
+ * <p>
+ * Entries are addressed by their ripple index where 0 is the outer most ripple, the
+ * index is derived from the {@link #head} offset so recycling the first entry to the
+ * end of the buffer is only a bump of the {@link #head}.
+ */
+public class RippleBuffer {
+
+    /**
+     * The X position of each ripple
+     */
+    private float[] x = new float[0];
+
+    /**
+     * The Y position of each ripple
+     */
+    private float[] y = new float[0];
+
+    /**
+     * The current multiplier value of each ripple
+     */
+    private float[] multiplier = new float[0];
+
+    /**
+     * The current radius size of each ripple
+     */
+    private float[] radius = new float[0];
+
+    /**
+     * The original color value which is only changed when the ripple is recycled or
+     * the buffer is re configured
+     */
+    private int[] originalColor = new int[0];
+
+    /**
+     * The changeable color value which is used when color transition happens
+     */
+    private int[] color = new int[0];
+
+    /**
+     * Flag for each ripple when it is ready to be rendered
+     */
+    private boolean[] render = new boolean[0];
+
+    /**
+     * The slot of the ripple index 0
+     */
+    private int head;
+
+    /**
+     * The number of ripples in the buffer
+     */
+    private int size;
+
+    /**
+     * Changes the number of ripples, the arrays are only reallocated when
+     * they cannot hold the new size. All ripples are reset.
+     *
+     * @param size The number of ripples
+     */
+    public void resize(int size) {
+        if (size > x.length) {
+            x = new float[size];
+            y = new float[size];
+            multiplier = new float[size];
+            radius = new float[size];
+            originalColor = new int[size];
+            color = new int[size];
+            render = new boolean[size];
+        }
+
+        this.size = size;
+        this.head = 0;
+
+        for (int i = 0; i < size; i++) {
+            reset(i);
+        }
+    }
+
+    /**
+     * Removes all the ripples, the arrays are kept to be reused
+     */
+    public void clear() {
+        size = 0;
+        head = 0;
+    }
+
+    /**
+     * @return The number of ripples in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Resets the first ripple and moves it to the end of the buffer.
+     */
+    public void recycleFirst() {
+        if (size == 0) {
+            return;
+        }
+
+        reset(0);
+        head = head + 1 == size ? 0 : head + 1;
+    }
+
+    /**
+     * Reset all data of the ripple
+     *
+     * @param index The index of the ripple
+     */
+    public void reset(int index) {
+        int slot = slot(index);
+        render[slot] = false;
+        multiplier[slot] = -1;
+        radius[slot] = 0;
+        originalColor[slot] = ColorUtil.TRANSPARENT;
+        color[slot] = ColorUtil.TRANSPARENT;
+    }
+
+    /**
+     * @param index The index of the ripple
+     * @return The slot in the arrays where the ripple is stored
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot >= size ? slot - size : slot;
+    }
+
+    public float getX(int index) {
+        return x[slot(index)];
+    }
+
+    public float getY(int index) {
+        return y[slot(index)];
+    }
+
+    public void setPosition(int index, float x, float y) {
+        int slot = slot(index);
+        this.x[slot] = x;
+        this.y[slot] = y;
+    }
+
+    public float getMultiplierValue(int index) {
+        return multiplier[slot(index)];
+    }
+
+    public void setMultiplierValue(int index, float multiplierValue) {
+        multiplier[slot(index)] = multiplierValue;
+    }
+
+    public float getRadiusSize(int index) {
+        return radius[slot(index)];
+    }
+
+    public int getOriginalColorValue(int index) {
+        return originalColor[slot(index)];
+    }
+
+    /**
+     * Changes the original color and the changing color of the ripple
+     *
+     * @param index The index of the ripple
+     * @param originalColorValue The color
+     */
+    public void setOriginalColorValue(int index, int originalColorValue) {
+        int slot = slot(index);
+        originalColor[slot] = originalColorValue;
+        color[slot] = originalColorValue;
+    }
+
+    public int getChangingColorValue(int index) {
+        return color[slot(index)];
+    }
+
+    public boolean isRender(int index) {
+        return render[slot(index)];
+    }
+
+    public void setRender(int index, boolean render) {
+        this.render[slot(index)] = render;
+    }
+
+    /**
+     * Updates the state of a ripple that is rendered in the current frame
+     *
+     * @param index The index of the ripple
+     * @param multiplierValue The current multiplier value
+     * @param radiusSize The current radius size
+     * @param changingColorValue The current color
+     */
+    public void setRendered(int index, float multiplierValue, float radiusSize, int changingColorValue) {
+        int slot = slot(index);
+        render[slot] = true;
+        multiplier[slot] = multiplierValue;
+        radius[slot] = radiusSize;
+        color[slot] = changingColorValue;
+    }
+}
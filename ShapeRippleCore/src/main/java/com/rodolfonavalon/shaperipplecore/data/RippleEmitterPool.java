@@ -0,0 +1,239 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.data;
+
+/**
+ * Fixed capacity pool of the ripples that are emitted at arbitrary positions, stored as parallel
+ * primitive arrays in the order they were emitted.
+ * <p>
+ * Every emitted ripple lives for the same duration so the oldest ripple is always the first one to
+ * finish, the pool is a ring buffer where finished ripples are released from the head. Nothing is
+ * allocated after the capacity is set, the {@link #overflowPolicy} decides what happens to a ripple
+ * emitted while the pool is full.
+ */
+public class RippleEmitterPool {
+
+    /**
+     * The oldest ripple is removed to make room for the emitted ripple
+     */
+    public static final int OVERFLOW_DROP_OLDEST = 0;
+
+    /**
+     * The emitted ripple is ignored
+     */
+    public static final int OVERFLOW_REJECT = 1;
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private float[] x;
+
+    private float[] y;
+
+    /**
+     * The current multiplier value of each ripple from 0 to 1
+     */
+    private float[] multiplier;
+
+    private float[] radius;
+
+    /**
+     * The color of each ripple when it was emitted
+     */
+    private int[] originalColor;
+
+    /**
+     * The current color of each ripple
+     */
+    private int[] color;
+
+    /**
+     * The slot of the oldest ripple
+     */
+    private int head;
+
+    /**
+     * The number of ripples in the pool
+     */
+    private int size;
+
+    private int overflowPolicy = OVERFLOW_DROP_OLDEST;
+
+    /**
+     * The number of ripples that were dropped or rejected because the pool was full
+     */
+    private long overflowCount;
+
+    public RippleEmitterPool() {
+        setCapacity(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Changes the maximum number of ripples, the ripples in the pool are removed
+     *
+     * @param capacity The maximum number of ripples
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be > 0");
+        }
+
+        x = new float[capacity];
+        y = new float[capacity];
+        multiplier = new float[capacity];
+        radius = new float[capacity];
+        originalColor = new int[capacity];
+        color = new int[capacity];
+        clear();
+    }
+
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * @param overflowPolicy {@link #OVERFLOW_DROP_OLDEST} or {@link #OVERFLOW_REJECT}
+     */
+    public void setOverflowPolicy(int overflowPolicy) {
+        if (overflowPolicy != OVERFLOW_DROP_OLDEST && overflowPolicy != OVERFLOW_REJECT) {
+            throw new IllegalArgumentException("Unknown overflow policy: " + overflowPolicy);
+        }
+
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return The number of ripples that were dropped or rejected because the pool was full
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+    /**
+     * Removes all the ripples
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @return The number of ripples in the pool
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a ripple that starts from the multiplier value 0
+     *
+     * @param x The X position of the ripple
+     * @param y The Y position of the ripple
+     * @param originalColor The color of the ripple
+     * @return False when the pool is full and the ripple is rejected
+     */
+    public boolean emit(float x, float y, int originalColor) {
+        if (size == this.x.length) {
+            overflowCount++;
+
+            if (overflowPolicy == OVERFLOW_REJECT) {
+                return false;
+            }
+
+            releaseFirst();
+        }
+
+        int slot = slot(size);
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.multiplier[slot] = 0;
+        this.radius[slot] = 0;
+        this.originalColor[slot] = originalColor;
+        this.color[slot] = originalColor;
+        size++;
+        return true;
+    }
+
+    /**
+     * Advances every ripple and releases the ripples that are finished
+     *
+     * @param delta the progress to advance the ripples, 1 is the duration of a single ripple
+     */
+    public void advance(float delta) {
+        for (int index = 0; index < size; index++) {
+            multiplier[slot(index)] += delta;
+        }
+
+        while (size > 0 && multiplier[head] >= 1.0f) {
+            releaseFirst();
+        }
+    }
+
+    private void releaseFirst() {
+        head = head + 1 == x.length ? 0 : head + 1;
+        size--;
+    }
+
+    /**
+     * @param index The index of the ripple, 0 is the oldest ripple
+     * @return The slot in the arrays where the ripple is stored
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot >= x.length ? slot - x.length : slot;
+    }
+
+    public float getX(int index) {
+        return x[slot(index)];
+    }
+
+    public float getY(int index) {
+        return y[slot(index)];
+    }
+
+    public float getMultiplierValue(int index) {
+        return multiplier[slot(index)];
+    }
+
+    public float getRadiusSize(int index) {
+        return radius[slot(index)];
+    }
+
+    public int getOriginalColorValue(int index) {
+        return originalColor[slot(index)];
+    }
+
+    public int getChangingColorValue(int index) {
+        return color[slot(index)];
+    }
+
+    /**
+     * Updates the radius and color of a ripple in the current frame
+     *
+     * @param index The index of the ripple
+     * @param radiusSize The current radius size
+     * @param changingColorValue The current color
+     */
+    public void setRendered(int index, float radiusSize, int changingColorValue) {
+        int slot = slot(index);
+        radius[slot] = radiusSize;
+        color[slot] = changingColorValue;
+    }
+}
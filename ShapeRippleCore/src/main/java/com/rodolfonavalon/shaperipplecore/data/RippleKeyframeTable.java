@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.data;
+
+/**
+ * Precomputed radius and color of a ripple over its whole life, sampled at a fixed number of
+ * frames per ripple interval.
+ * <p>
+ * Once every ripple is started the ripples repeat every ripple interval, the ripple that is
+ * {@code n} intervals old at the frame {@code f} of the interval is the keyframe
+ * {@code n * framesPerInterval + f}, so a whole frame is only table reads.
+ */
+public class RippleKeyframeTable {
+
+    private float[] radius = new float[0];
+
+    private int[] color = new int[0];
+
+    /**
+     * The number of frames sampled in a single ripple interval
+     */
+    private int framesPerInterval;
+
+    /**
+     * The number of keyframes of the table
+     */
+    private int keyframeCount;
+
+    /**
+     * Changes the size of the table, the arrays are only reallocated when they cannot hold the new size.
+     *
+     * @param rippleCount The number of ripples, which is the number of intervals in the life of a ripple
+     * @param framesPerInterval The number of frames sampled in a single ripple interval
+     */
+    public void resize(int rippleCount, int framesPerInterval) {
+        int keyframeCount = rippleCount * framesPerInterval;
+
+        if (keyframeCount > radius.length) {
+            radius = new float[keyframeCount];
+            color = new int[keyframeCount];
+        }
+
+        this.framesPerInterval = framesPerInterval;
+        this.keyframeCount = keyframeCount;
+    }
+
+    /**
+     * @return The number of keyframes of the table
+     */
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+
+    /**
+     * @return The number of frames sampled in a single ripple interval
+     */
+    public int getFramesPerInterval() {
+        return framesPerInterval;
+    }
+
+    public void set(int keyframe, float radiusSize, int color) {
+        this.radius[keyframe] = radiusSize;
+        this.color[keyframe] = color;
+    }
+
+    public float getRadiusSize(int keyframe) {
+        return radius[keyframe];
+    }
+
+    public int getColor(int keyframe) {
+        return color[keyframe];
+    }
+}
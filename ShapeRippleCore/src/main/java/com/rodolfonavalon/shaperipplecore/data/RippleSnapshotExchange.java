@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.data;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer of {@link RippleBatch} snapshots between one producer thread that updates the
+ * ripples and one consumer thread that draws them.
+ * <p>
+ * The producer fills the {@link #getBackBuffer()} and {@link #publish()} it, the consumer always draws the
+ * latest published snapshot from {@link #acquire()}. Neither thread waits for the other, a snapshot that is
+ * published twice before it is acquired is simply replaced.
+ */
+public class RippleSnapshotExchange {
+
+    /**
+     * Set on the {@link #middle} when it holds a snapshot that was not acquired yet
+     */
+    private static final int FRESH = 4;
+
+    private static final int INDEX_MASK = 3;
+
+    private final RippleBatch[] batches = {new RippleBatch(), new RippleBatch(), new RippleBatch()};
+
+    /**
+     * The index of the buffer between the producer and the consumer and the {@link #FRESH} flag
+     */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /**
+     * The index of the buffer written by the producer, only used by the producer thread
+     */
+    private int back = 0;
+
+    /**
+     * The index of the buffer read by the consumer, only used by the consumer thread
+     */
+    private int front = 2;
+
+    /**
+     * @return The snapshot that the producer writes, it is not read by the consumer until it is published
+     */
+    public RippleBatch getBackBuffer() {
+        return batches[back];
+    }
+
+    /**
+     * Hands the back buffer over to the consumer, the producer gets a buffer that the consumer is not reading
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * @return The latest published snapshot, it stays unchanged until the next call
+     */
+    public RippleBatch acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return batches[front];
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.generator;
+
+/**
+ * Strategy of the colors of the ripples when the random color is enabled, it is called
+ * every time a ripple is started so it should not allocate.
+ */
+public interface ColorGenerator {
+
+    /**
+     * @param palette The colors to choose from, it is never empty
+     * @return The color of the next ripple
+     */
+    int nextColor(int[] palette);
+
+    /**
+     * Copies the generator with its current color, the copy moves independently so each thread that
+     * picks the colors needs its own copy.
+     *
+     * @return The copy of the generator
+     */
+    ColorGenerator copy();
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.generator;
+
+import java.util.Random;
+
+/**
+ * A {@link ColorGenerator} that cycles through a precomputed pool of palette positions, the pool is
+ * independent of the palette so it is not computed again when the palette changes.
+ */
+public class ColorPool implements ColorGenerator {
+
+    /**
+     * The default number of colors of a pool
+     */
+    public static final int DEFAULT_POOL_SIZE = 256;
+
+    /**
+     * The position of each color in the palette from 0 to 1
+     */
+    private final float[] unitIndex;
+
+    /**
+     * The index of the current color
+     */
+    private int cursor;
+
+    private ColorPool(float[] unitIndex) {
+        this.unitIndex = unitIndex;
+
+        // the first color is the first of the pool
+        this.cursor = unitIndex.length - 1;
+    }
+
+    /**
+     * @param seed The seed of the sequence, the same seed always creates the same colors
+     * @param size The number of colors
+     * @return The pool of uniformly random colors of the palette
+     */
+    public static ColorPool random(long seed, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0");
+        }
+
+        Random random = new Random(seed);
+        float[] unitIndex = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            unitIndex[i] = random.nextFloat();
+        }
+
+        return new ColorPool(unitIndex);
+    }
+
+    /**
+     * @return The generator that picks the colors of the palette in order
+     */
+    public static ColorGenerator sequential() {
+        return new SequentialColorGenerator();
+    }
+
+    @Override
+    public int nextColor(int[] palette) {
+        cursor = cursor + 1 == unitIndex.length ? 0 : cursor + 1;
+        return palette[(int) (unitIndex[cursor] * palette.length)];
+    }
+
+    @Override
+    public ColorPool copy() {
+        // the colors are never changed so they are shared with the copy
+        ColorPool pool = new ColorPool(unitIndex);
+        pool.cursor = cursor;
+        return pool;
+    }
+
+    private static final class SequentialColorGenerator implements ColorGenerator {
+
+        /**
+         * The index of the current color, the first color is the first of the palette
+         */
+        private int index = -1;
+
+        @Override
+        public int nextColor(int[] palette) {
+            index = index + 1 >= palette.length ? 0 : index + 1;
+            return palette[index];
+        }
+
+        @Override
+        public ColorGenerator copy() {
+            SequentialColorGenerator generator = new SequentialColorGenerator();
+            generator.index = index;
+            return generator;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.generator;
+
+/**
+ * Strategy of the positions of the ripples when the random position is enabled, it is called
+ * every time a ripple is started so it should not allocate.
+ */
+public interface PositionGenerator {
+
+    /**
+     * Change the size of the area where the positions are generated
+     *
+     * @param width The width in pixel
+     * @param height The height in pixel
+     */
+    void setSize(int width, int height);
+
+    /**
+     * Moves to the next position, read with {@link #getX()} and {@link #getY()}
+     */
+    void next();
+
+    /**
+     * @return The X position of the current position
+     */
+    float getX();
+
+    /**
+     * @return The Y position of the current position
+     */
+    float getY();
+
+    /**
+     * Copies the generator with its current position and size, the copy moves independently so each
+     * thread that moves the positions needs its own copy.
+     *
+     * @return The copy of the generator
+     */
+    PositionGenerator copy();
+}
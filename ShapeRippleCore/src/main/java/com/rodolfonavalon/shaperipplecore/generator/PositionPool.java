@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.generator;
+
+import java.util.Random;
+
+/**
+ * A {@link PositionGenerator} that cycles through a precomputed pool of positions, the pool is stored in
+ * unit coordinates from 0 to 1 so it is not computed again when the size changes.
+ * <p>
+ * The pool is created with one of the factories: {@link #random(long, int)} for a seeded uniform sequence,
+ * {@link #halton(int)} for a low discrepancy sequence, or {@link #blueNoise(long, int)} for positions that
+ * are spread as far apart from each other as possible so the ripples overlap less.
+ */
+public class PositionPool implements PositionGenerator {
+
+    /**
+     * The default number of positions of a pool
+     */
+    public static final int DEFAULT_POOL_SIZE = 256;
+
+    /**
+     * The number of candidates tested for each blue noise position, more is better spread but slower to build
+     */
+    private static final int BLUE_NOISE_CANDIDATES = 10;
+
+    private final float[] unitX;
+
+    private final float[] unitY;
+
+    /**
+     * The index of the current position
+     */
+    private int cursor;
+
+    private int width;
+
+    private int height;
+
+    private PositionPool(float[] unitX, float[] unitY) {
+        this.unitX = unitX;
+        this.unitY = unitY;
+
+        // the first next moves to the first position
+        this.cursor = unitX.length - 1;
+    }
+
+    /**
+     * @param seed The seed of the sequence, the same seed always creates the same positions
+     * @param size The number of positions
+     * @return The pool of uniformly random positions
+     */
+    public static PositionPool random(long seed, int size) {
+        checkSize(size);
+
+        Random random = new Random(seed);
+        float[] x = new float[size];
+        float[] y = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            x[i] = random.nextFloat();
+            y[i] = random.nextFloat();
+        }
+
+        return new PositionPool(x, y);
+    }
+
+    /**
+     * @param size The number of positions
+     * @return The pool of the Halton sequence of base 2 and 3, each position fills the largest gap left by the previous ones
+     */
+    public static PositionPool halton(int size) {
+        checkSize(size);
+
+        float[] x = new float[size];
+        float[] y = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            // the index 0 is the corner of the area
+            x[i] = radicalInverse(i + 1, 2);
+            y[i] = radicalInverse(i + 1, 3);
+        }
+
+        return new PositionPool(x, y);
+    }
+
+    /**
+     * Builds the pool with the best candidate algorithm, each position is the farthest of a few random
+     * candidates from the recent positions.
+     *
+     * @param seed The seed of the sequence, the same seed always creates the same positions
+     * @param size The number of positions
+     * @return The pool of the blue noise positions
+     */
+    public static PositionPool blueNoise(long seed, int size) {
+        checkSize(size);
+
+        Random random = new Random(seed);
+        float[] x = new float[size];
+        float[] y = new float[size];
+
+        // only the recent positions are compared since the old ripples are already finished
+        int window = Math.min(size, 16);
+
+        for (int i = 0; i < size; i++) {
+            float bestDistance = -1;
+
+            for (int candidate = 0; candidate < BLUE_NOISE_CANDIDATES; candidate++) {
+                float candidateX = random.nextFloat();
+                float candidateY = random.nextFloat();
+
+                float nearestDistance = Float.MAX_VALUE;
+                for (int j = Math.max(i - window, 0); j < i; j++) {
+                    float dx = candidateX - x[j];
+                    float dy = candidateY - y[j];
+                    nearestDistance = Math.min(nearestDistance, dx * dx + dy * dy);
+                }
+
+                if (nearestDistance > bestDistance) {
+                    bestDistance = nearestDistance;
+                    x[i] = candidateX;
+                    y[i] = candidateY;
+                }
+            }
+        }
+
+        return new PositionPool(x, y);
+    }
+
+    /**
+     * @return The number of positions of the pool
+     */
+    public int size() {
+        return unitX.length;
+    }
+
+    @Override
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void next() {
+        cursor = cursor + 1 == unitX.length ? 0 : cursor + 1;
+    }
+
+    @Override
+    public float getX() {
+        return (int) (unitX[cursor] * width);
+    }
+
+    @Override
+    public float getY() {
+        return (int) (unitY[cursor] * height);
+    }
+
+    @Override
+    public PositionPool copy() {
+        // the positions are never changed so they are shared with the copy
+        PositionPool pool = new PositionPool(unitX, unitY);
+        pool.cursor = cursor;
+        pool.width = width;
+        pool.height = height;
+        return pool;
+    }
+
+    /**
+     * @return The digits of the index in the base mirrored after the decimal point
+     */
+    private static float radicalInverse(int index, int base) {
+        float inverse = 0;
+        float digitValue = 1f / base;
+
+        while (index > 0) {
+            inverse += (index % base) * digitValue;
+            index /= base;
+            digitValue /= base;
+        }
+
+        return inverse;
+    }
+
+    private static void checkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be greater than 0");
+        }
+    }
+}
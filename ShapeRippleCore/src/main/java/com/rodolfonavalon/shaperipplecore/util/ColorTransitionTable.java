@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.util;
+
+/**
+ * Precomputed color transitions from a set of start colors to a single end color.
+ * <p>
+ * Each start color has a table of {@link #steps} + 1 quantized colors so evaluating a transition is a
+ * single array read. Start colors without a table are interpolated with {@link #evaluateSwar(float, int, int)}.
+ */
+public class ColorTransitionTable {
+
+    /**
+     * The default number of quantized steps of each transition, one step is smaller
+     * than a single value of a color channel
+     */
+    public static final int DEFAULT_STEPS = 256;
+
+    /**
+     * The maximum number of start colors that has a table, the rest are interpolated
+     */
+    public static final int MAX_TABLES = 64;
+
+    private static final int MASK_RB = 0x00FF00FF;
+
+    /**
+     * The number of quantized steps of each transition
+     */
+    private final int steps;
+
+    /**
+     * The start color of each table
+     */
+    private int[] startColors = new int[0];
+
+    /**
+     * The precomputed transitions of each start color
+     */
+    private int[][] tables = new int[0][];
+
+    /**
+     * The number of tables that are built
+     */
+    private int tableCount;
+
+    /**
+     * The end color of the transitions
+     */
+    private int endColor;
+
+    /**
+     * The index of the last table that was used, consecutive ripples usually share the start color
+     */
+    private int lastTable;
+
+    public ColorTransitionTable() {
+        this(DEFAULT_STEPS);
+    }
+
+    public ColorTransitionTable(int steps) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("Steps must be greater than 0");
+        }
+
+        this.steps = steps;
+    }
+
+    /**
+     * Rebuilds the tables for the start colors, duplicated start colors share a single table.
+     *
+     * @param startColors The start colors of the transitions
+     * @param startColorCount The number of start colors to use from the array
+     * @param endColor The end color of the transitions
+     */
+    public void rebuild(int[] startColors, int startColorCount, int endColor) {
+        int count = Math.min(startColorCount, MAX_TABLES);
+
+        if (this.startColors.length < count) {
+            this.startColors = new int[count];
+            this.tables = new int[count][];
+        }
+
+        this.endColor = endColor;
+        this.tableCount = 0;
+        this.lastTable = 0;
+
+        for (int i = 0; i < count; i++) {
+            int startColor = startColors[i];
+            if (indexOf(startColor) >= 0) {
+                continue;
+            }
+
+            int[] table = tables[tableCount];
+            if (table == null || table.length != steps + 1) {
+                table = new int[steps + 1];
+                tables[tableCount] = table;
+            }
+
+            for (int step = 0; step <= steps; step++) {
+                table[step] = ColorUtil.evaluateTransitionColor(step / (float) steps, startColor, endColor);
+            }
+
+            this.startColors[tableCount] = startColor;
+            tableCount++;
+        }
+    }
+
+    /**
+     * Calculate the current color by the current fraction value.
+     *
+     * @param fraction The current fraction value
+     * @param startColor The start color
+     * @return The calculate fraction color
+     */
+    public int evaluate(float fraction, int startColor) {
+        int table = lastTable;
+        if (table >= tableCount || startColors[table] != startColor) {
+            table = indexOf(startColor);
+
+            if (table < 0) {
+                return evaluateSwar(fraction, startColor, endColor);
+            }
+
+            lastTable = table;
+        }
+
+        int step = (int) (fraction * steps);
+        if (step < 0) {
+            step = 0;
+        } else if (step > steps) {
+            step = steps;
+        }
+
+        return tables[table][step];
+    }
+
+    /**
+     * @return The end color of the transitions
+     */
+    public int getEndColor() {
+        return endColor;
+    }
+
+    private int indexOf(int startColor) {
+        for (int i = 0; i < tableCount; i++) {
+            if (startColors[i] == startColor) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calculate the current color by the current fraction value, the channels are interpolated
+     * two at a time in the packed int with a fixed point weight of 8 bits.
+     *
+     * @param fraction The current fraction value
+     * @param startValue The start color
+     * @param endValue The end color
+     * @return The calculate fraction color
+     */
+    public static int evaluateSwar(float fraction, int startValue, int endValue) {
+        int weight = (int) (fraction * 256);
+        if (weight <= 0) {
+            return startValue;
+        } else if (weight >= 256) {
+            return endValue;
+        }
+
+        int inverse = 256 - weight;
+
+        // red and blue
+        int rb = ((startValue & MASK_RB) * inverse + (endValue & MASK_RB) * weight) >>> 8;
+
+        // alpha and green
+        int ag = ((startValue >>> 8) & MASK_RB) * inverse + ((endValue >>> 8) & MASK_RB) * weight;
+
+        return (rb & MASK_RB) | (ag & ~MASK_RB);
+    }
+}
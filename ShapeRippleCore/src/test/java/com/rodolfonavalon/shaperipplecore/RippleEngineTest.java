@@ -0,0 +1,366 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore;
+
+import com.rodolfonavalon.shaperipplecore.data.RippleBatch;
+import com.rodolfonavalon.shaperipplecore.data.RippleEmitterPool;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RippleEngineTest {
+
+    private static final int RIPPLE_COLOR = 0xFFF44336;
+
+    private RippleEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new RippleEngine(new Random(0));
+        engine.setRippleColor(RIPPLE_COLOR);
+        engine.setRippleToColor(0x00FFFFFF);
+        engine.setRippleStrokeWidth(10);
+        engine.setViewSize(200, 100);
+    }
+
+    @Test
+    public void initializeEntries_calculatesDefaults() throws Exception {
+        engine.initializeEntries();
+
+        // min(200, 100) / 2 - 10 / 2
+        assertEquals(45, engine.getMaxRippleRadius());
+        assertEquals(4, engine.getRippleCount());
+        assertEquals(4, engine.getEntryCount());
+        assertEquals(0.25f, engine.getRippleInterval(), 0f);
+
+        for (int i = 0; i < engine.getEntryCount(); i++) {
+            assertEquals(100f, engine.getX(i), 0f);
+            assertEquals(50f, engine.getY(i), 0f);
+            assertEquals(RIPPLE_COLOR, engine.getOriginalColor(i));
+        }
+    }
+
+    @Test
+    public void initializeEntries_withoutSize_createsNothing() throws Exception {
+        engine.setViewSize(0, 0);
+        engine.initializeEntries();
+
+        assertEquals(0, engine.getEntryCount());
+        assertFalse(engine.render(0.5f));
+    }
+
+    @Test
+    public void advance_rendersOnlyStartedRipples() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        engine.advance(0.3f);
+
+        assertTrue(engine.isRender(0));
+        assertTrue(engine.isRender(1));
+        assertFalse(engine.isRender(2));
+        assertFalse(engine.isRender(3));
+
+        assertEquals(0.3f, engine.getMultiplierValue(0), 1e-6f);
+        assertEquals(45 * 0.3f, engine.getRadiusSize(0), 1e-4f);
+    }
+
+    @Test
+    public void advance_recyclesFinishedRipple() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        engine.advance(0.9f);
+        engine.advance(0.2f);
+
+        // the second ripple is now the outer most ripple
+        assertEquals(0.85f, engine.getMultiplierValue(0), 1e-6f);
+        assertTrue(engine.isRender(0));
+
+        // the finished ripple starts over at the end of the list
+        assertEquals(0.1f, engine.getMultiplierValue(3), 1e-6f);
+        assertEquals(RIPPLE_COLOR, engine.getOriginalColor(3));
+        assertEquals(4, engine.getEntryCount());
+    }
+
+    @Test
+    public void render_keepsTheTimeWhenTheProgressRepeats() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        assertTrue(engine.render(0.5f));
+        assertTrue(engine.render(0.1f, true));
+
+        // the animation repeated, 0.5 until the end of the cycle and 0.1 of the next
+        assertEquals(1, engine.getRecycledCount());
+        assertEquals(0.85f, engine.getMultiplierValue(0), 1e-6f);
+    }
+
+    @Test
+    public void render_ignoresBackwardProgress() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        // an overshooting interpolator moves the progress back within the cycle
+        assertTrue(engine.render(0.52f));
+        assertTrue(engine.render(0.51f));
+
+        assertEquals(0, engine.getRecycledCount());
+        assertEquals(0.52f, engine.getMultiplierValue(0), 1e-6f);
+    }
+
+    @Test
+    public void initializeEntries_keepsTheProgressOfTheAnimation() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+        engine.render(0.32f);
+
+        // the ripples are created again in the middle of the cycle
+        engine.initializeEntries();
+        engine.render(0.34f);
+
+        assertEquals(0.02f, engine.getMultiplierValue(0), 1e-6f);
+    }
+
+    @Test
+    public void singleRipple_createsOneEntry() throws Exception {
+        engine.setEnableSingleRipple(true);
+        engine.initializeEntries();
+
+        assertEquals(1, engine.getEntryCount());
+    }
+
+    @Test
+    public void copyConfiguration_sharesTheSameConfiguration() throws Exception {
+        engine.initializeEntries();
+
+        RippleEngine copy = new RippleEngine(new Random(1));
+        copy.copyConfiguration(engine);
+        copy.initializeEntries();
+
+        assertTrue(copy.hasSameConfiguration(engine));
+        assertEquals(engine.getEntryCount(), copy.getEntryCount());
+
+        int version = engine.getConfigurationVersion();
+        engine.setRippleColor(0xFF00FF00);
+
+        assertTrue(version != engine.getConfigurationVersion());
+        assertFalse(copy.hasSameConfiguration(engine));
+    }
+
+    @Test
+    public void fillBatch_collectsOnlyRenderedRipples() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+        engine.advance(0.3f);
+
+        RippleBatch batch = new RippleBatch();
+        engine.fillBatch(batch);
+
+        assertEquals(2, batch.size());
+        assertEquals(0, batch.getRippleIndex()[0]);
+        assertEquals(1, batch.getRippleIndex()[1]);
+        assertEquals(engine.getRadiusSize(1), batch.getRadiusSize()[1], 0f);
+        assertEquals(engine.getColor(1), batch.getColor()[1]);
+    }
+
+    @Test
+    public void fillBatch_withStride_skipsTheSameRipplesAfterRecycling() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+        engine.advance(0.9f);
+
+        RippleBatch batch = new RippleBatch();
+        engine.fillBatch(batch, 2);
+        assertEquals(2, batch.size());
+        assertEquals(2, batch.getRippleIndex()[1]);
+        float radiusSize = batch.getRadiusSize()[1];
+
+        // the outer most ripple is recycled so the same ripples are now at odd indices
+        engine.advance(0.2f);
+        engine.fillBatch(batch, 2);
+        assertEquals(2, batch.size());
+        assertEquals(1, batch.getRippleIndex()[0]);
+        assertEquals(3, batch.getRippleIndex()[1]);
+        assertEquals(engine.getRadiusSize(1), batch.getRadiusSize()[0], 0f);
+        assertTrue(engine.getRadiusSize(1) > radiusSize);
+    }
+
+    @Test
+    public void keyframeTimeline_matchesTheSimulation() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        RippleEngine keyframeEngine = new RippleEngine(new Random(0));
+        keyframeEngine.copyConfiguration(engine);
+        keyframeEngine.setKeyframeResolution(100);
+        keyframeEngine.initializeEntries();
+
+        assertTrue(keyframeEngine.isKeyframeTimeline());
+        assertFalse(engine.isKeyframeTimeline());
+
+        for (int frame = 0; frame < 200; frame++) {
+            engine.advance(0.013f);
+            keyframeEngine.advance(0.013f);
+
+            for (int i = 0; i < engine.getEntryCount(); i++) {
+                assertEquals(engine.isRender(i), keyframeEngine.isRender(i));
+
+                // a keyframe is at most 1 / (4 * 100) of the life of a ripple behind
+                assertEquals(engine.getRadiusSize(i), keyframeEngine.getRadiusSize(i), 45f / 400 + 0.01f);
+            }
+        }
+    }
+
+    @Test
+    public void advance_countsRecycledRipples() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        // the first ripple finishes at 1, then every 0.25
+        for (int frame = 0; frame < 15; frame++) {
+            engine.advance(0.1f);
+        }
+
+        assertEquals(3, engine.getRecycledCount());
+    }
+
+    @Test
+    public void emit_drawsTheRippleAfterThePeriodicRipples() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        assertTrue(engine.emit(20, 30));
+        engine.advance(0.5f);
+
+        assertEquals(5, engine.getEntryCount());
+        assertTrue(engine.isRender(4));
+        assertEquals(20f, engine.getX(4), 0f);
+        assertEquals(30f, engine.getY(4), 0f);
+        assertEquals(22.5f, engine.getRadiusSize(4), 0.001f);
+
+        // the emitted ripple lives for the duration of a single ripple
+        engine.advance(0.5f);
+        assertEquals(4, engine.getEntryCount());
+    }
+
+    @Test
+    public void emit_whenFull_appliesTheOverflowPolicy() throws Exception {
+        engine.initializeEntries();
+        engine.setEmitterCapacity(2);
+
+        engine.emit(1, 1);
+        engine.advance(0.1f);
+        engine.emit(2, 2);
+        engine.emit(3, 3);
+
+        // the oldest ripple is dropped
+        assertEquals(2, engine.getEmittedCount());
+        assertEquals(2f, engine.getX(4), 0f);
+        assertEquals(3f, engine.getX(5), 0f);
+
+        engine.setEmitterOverflowPolicy(RippleEmitterPool.OVERFLOW_REJECT);
+        assertFalse(engine.emit(4, 4));
+        assertEquals(3f, engine.getX(5), 0f);
+        assertEquals(2, engine.getEmitterOverflowCount());
+    }
+
+    @Test
+    public void copyConfiguration_copiesTheEmitterSettings() throws Exception {
+        engine.initializeEntries();
+        engine.setEmitterCapacity(1);
+        engine.setEmitterOverflowPolicy(RippleEmitterPool.OVERFLOW_REJECT);
+
+        RippleEngine copy = new RippleEngine(new Random(1));
+        assertFalse(copy.hasSameConfiguration(engine));
+
+        copy.copyConfiguration(engine);
+        copy.initializeEntries();
+        assertTrue(copy.hasSameConfiguration(engine));
+        assertEquals(1, copy.getEmitterCapacity());
+
+        // the emitter of the copy is full after a single ripple and rejects the next one
+        assertTrue(copy.emit(1, 1));
+        assertFalse(copy.emit(2, 2));
+        assertEquals(1, copy.getEmittedCount());
+        assertEquals(1f, copy.getX(copy.getEntryCount() - 1), 0f);
+
+        engine.setEmitterOverflowPolicy(RippleEmitterPool.OVERFLOW_DROP_OLDEST);
+        assertFalse(copy.hasSameConfiguration(engine));
+    }
+
+    @Test
+    public void advance_longStep_recyclesSeveralRipples() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        engine.advance(0.9f);
+        engine.advance(0.6f);
+
+        // the ripples started at 0, 0.25, 0.5 and 0.75 are finished at 1.5
+        assertEquals(3, engine.getRecycledCount());
+        assertEquals(0.75f, engine.getMultiplierValue(0), 0.0001f);
+        assertEquals(45 * 0.75f, engine.getRadiusSize(0), 0.001f);
+    }
+
+    @Test
+    public void renderNanos_advancesByTheElapsedTimeUpToTheCatchUp() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        // the first frame only records the time
+        engine.renderNanos(1000L, 1000L);
+        assertEquals(0f, engine.getMultiplierValue(0), 0f);
+
+        engine.renderNanos(1500L, 1000L);
+        assertEquals(0.5f, engine.getMultiplierValue(0), 0.0001f);
+
+        // a stall of 10 ripples is capped to a single ripple
+        engine.renderNanos(11500L, 1000L);
+        assertEquals(3, engine.getRecycledCount());
+        assertEquals(0.75f, engine.getMultiplierValue(0), 0.0001f);
+    }
+
+    @Test
+    public void advance_hugeStep_recyclesAtOnce() throws Exception {
+        engine.setRippleCount(4);
+        engine.initializeEntries();
+
+        // the ripples started every 0.25 up to 249999 are finished without stepping through them
+        engine.advance(250000.1f);
+        assertEquals(999997, engine.getRecycledCount());
+        assertEquals(4, engine.getEntryCount());
+        assertTrue(engine.getMultiplierValue(0) < 1.0f);
+        assertTrue(engine.getMultiplierValue(0) >= 0.75f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMaxCatchUp_rejectsInfinity() throws Exception {
+        engine.setMaxCatchUp(Float.POSITIVE_INFINITY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMaxCatchUp_rejectsZero() throws Exception {
+        engine.setMaxCatchUp(0);
+    }
+}
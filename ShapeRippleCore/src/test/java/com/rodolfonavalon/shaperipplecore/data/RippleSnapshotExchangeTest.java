@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.data;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RippleSnapshotExchangeTest {
+
+    @Test
+    public void acquire_returnsTheLatestPublishedSnapshot() throws Exception {
+        RippleSnapshotExchange exchange = new RippleSnapshotExchange();
+        assertEquals(0, exchange.acquire().size());
+
+        publish(exchange, 1);
+        publish(exchange, 2);
+
+        RippleBatch front = exchange.acquire();
+        assertEquals(2, front.size());
+
+        // nothing new was published
+        assertSame(front, exchange.acquire());
+    }
+
+    @Test
+    public void publish_neverWritesTheAcquiredSnapshot() throws Exception {
+        RippleSnapshotExchange exchange = new RippleSnapshotExchange();
+
+        publish(exchange, 1);
+        RippleBatch front = exchange.acquire();
+
+        for (int i = 0; i < 5; i++) {
+            assertNotSame(front, exchange.getBackBuffer());
+            publish(exchange, 3);
+        }
+
+        assertEquals(1, front.size());
+    }
+
+    private static void publish(RippleSnapshotExchange exchange, int size) {
+        RippleBatch batch = exchange.getBackBuffer();
+        batch.reset(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(i, i, i, 0, i);
+        }
+        exchange.publish();
+    }
+}
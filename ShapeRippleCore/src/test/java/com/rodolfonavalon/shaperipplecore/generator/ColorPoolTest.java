@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.generator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColorPoolTest {
+
+    @Test
+    public void sequential_startsWithTheFirstColor() throws Exception {
+        ColorGenerator generator = ColorPool.sequential();
+        int[] palette = {0xFF000001, 0xFF000002, 0xFF000003};
+
+        assertEquals(palette[0], generator.nextColor(palette));
+        assertEquals(palette[1], generator.nextColor(palette));
+        assertEquals(palette[2], generator.nextColor(palette));
+
+        // the palette repeats from the first color
+        assertEquals(palette[0], generator.nextColor(palette));
+    }
+
+    @Test
+    public void sequential_copyContinuesFromTheSameColor() throws Exception {
+        ColorGenerator generator = ColorPool.sequential();
+        int[] palette = {0xFF000001, 0xFF000002, 0xFF000003};
+        generator.nextColor(palette);
+
+        ColorGenerator copy = generator.copy();
+
+        assertEquals(palette[1], copy.nextColor(palette));
+        assertEquals(palette[1], generator.nextColor(palette));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.generator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PositionPoolTest {
+
+    @Test
+    public void random_isDeterministicForTheSeed() throws Exception {
+        PositionPool first = PositionPool.random(42, 16);
+        PositionPool second = PositionPool.random(42, 16);
+        first.setSize(1000, 1000);
+        second.setSize(1000, 1000);
+
+        for (int i = 0; i < 32; i++) {
+            first.next();
+            second.next();
+
+            assertEquals(first.getX(), second.getX(), 0f);
+            assertEquals(first.getY(), second.getY(), 0f);
+        }
+    }
+
+    @Test
+    public void halton_startsWithTheRadicalInverses() throws Exception {
+        PositionPool pool = PositionPool.halton(4);
+        pool.setSize(1200, 900);
+
+        // 1 / 2 and 1 / 3
+        pool.next();
+        assertEquals(600f, pool.getX(), 0f);
+        assertEquals(300f, pool.getY(), 0f);
+
+        // 1 / 4 and 2 / 3
+        pool.next();
+        assertEquals(300f, pool.getX(), 0f);
+        assertEquals(600f, pool.getY(), 0f);
+    }
+
+    @Test
+    public void blueNoise_spreadsThePositionsApart() throws Exception {
+        float blueNoiseDistance = nearestConsecutiveDistance(PositionPool.blueNoise(7, 64));
+        float randomDistance = nearestConsecutiveDistance(PositionPool.random(7, 64));
+
+        assertTrue(blueNoiseDistance > randomDistance);
+    }
+
+    @Test
+    public void copy_continuesTheSequenceIndependently() throws Exception {
+        PositionPool pool = PositionPool.random(42, 16);
+        pool.setSize(1000, 1000);
+        pool.next();
+
+        PositionPool copy = pool.copy();
+        assertEquals(pool.getX(), copy.getX(), 0f);
+        assertEquals(pool.getY(), copy.getY(), 0f);
+
+        // moving the copy does not move the pool
+        float x = pool.getX();
+        copy.next();
+        copy.next();
+        assertEquals(x, pool.getX(), 0f);
+
+        pool.next();
+        pool.next();
+        assertEquals(copy.getX(), pool.getX(), 0f);
+        assertEquals(copy.getY(), pool.getY(), 0f);
+    }
+
+    private static float nearestConsecutiveDistance(PositionPool pool) {
+        pool.setSize(1000, 1000);
+
+        float nearest = Float.MAX_VALUE;
+        pool.next();
+        for (int i = 1; i < pool.size(); i++) {
+            float x = pool.getX();
+            float y = pool.getY();
+            pool.next();
+
+            float dx = x - pool.getX();
+            float dy = y - pool.getY();
+            nearest = Math.min(nearest, dx * dx + dy * dy);
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.util;
+
+/**
+ * Compares the color transition of {@link ColorUtil#evaluateTransitionColor(float, int, int)} against the
+ * {@link ColorTransitionTable} lookup and its packed int interpolation.
+ * <p>
+ * Run with {@code ./gradlew :ShapeRippleCore:benchmark}
+ */
+public class ColorTransitionBenchmark {
+
+    private static final int[] START_COLORS = {
+            0xFF673AB7, 0xFF3F51B5, 0xFF2196F3, 0xFF03A9F4, 0xFF00BCD4,
+            0xFF009688, 0xFF8BC34A, 0xFF4CAF50, 0xFFFF5722, 0xFFF44336};
+
+    private static final int END_COLOR = 0x00FFFFFF;
+
+    private static final int RIPPLES = 512;
+
+    private static final int FRAMES = 20000;
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        ColorTransitionTable table = new ColorTransitionTable();
+        table.rebuild(START_COLORS, START_COLORS.length, END_COLOR);
+
+        float[] fractions = new float[RIPPLES];
+        int[] singleColors = new int[RIPPLES];
+        int[] randomColors = new int[RIPPLES];
+        for (int i = 0; i < RIPPLES; i++) {
+            fractions[i] = i / (float) RIPPLES;
+            singleColors[i] = START_COLORS[0];
+            randomColors[i] = START_COLORS[i % START_COLORS.length];
+        }
+
+        run("single color", table, fractions, singleColors);
+        run("random colors", table, fractions, randomColors);
+    }
+
+    private static void run(String name, ColorTransitionTable table, float[] fractions, int[] colors) {
+        for (int round = 0; round < ROUNDS; round++) {
+            long reference = runReference(fractions, colors);
+            long lookup = runTable(table, fractions, colors);
+            long swar = runSwar(fractions, colors);
+
+            System.out.println(String.format("%s round %d: evaluateTransitionColor %d ms, table %d ms, swar %d ms",
+                    name, round, reference / 1000000, lookup / 1000000, swar / 1000000));
+        }
+    }
+
+    private static long runReference(float[] fractions, int[] colors) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            float offset = frame / (float) FRAMES / RIPPLES;
+            for (int i = 0; i < RIPPLES; i++) {
+                sink += ColorUtil.evaluateTransitionColor(fractions[i] + offset, colors[i], END_COLOR);
+            }
+        }
+        consume(sink);
+        return System.nanoTime() - start;
+    }
+
+    private static long runTable(ColorTransitionTable table, float[] fractions, int[] colors) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            float offset = frame / (float) FRAMES / RIPPLES;
+            for (int i = 0; i < RIPPLES; i++) {
+                sink += table.evaluate(fractions[i] + offset, colors[i]);
+            }
+        }
+        consume(sink);
+        return System.nanoTime() - start;
+    }
+
+    private static long runSwar(float[] fractions, int[] colors) {
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int frame = 0; frame < FRAMES; frame++) {
+            float offset = frame / (float) FRAMES / RIPPLES;
+            for (int i = 0; i < RIPPLES; i++) {
+                sink += ColorTransitionTable.evaluateSwar(fractions[i] + offset, colors[i], END_COLOR);
+            }
+        }
+        consume(sink);
+        return System.nanoTime() - start;
+    }
+
+    private static void consume(int sink) {
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplecore.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ColorTransitionTableTest {
+
+    private static final int[] COLORS = {0xFFF44336, 0xFF673AB7, 0x80FFFFFF, 0x00000000, 0xFF00FF00};
+
+    @Test
+    public void evaluate_matchesReferenceWithinOneStep() throws Exception {
+        ColorTransitionTable table = new ColorTransitionTable();
+        table.rebuild(COLORS, COLORS.length, 0x00FFFFFF);
+
+        for (int color : COLORS) {
+            for (int i = 0; i <= 1000; i++) {
+                float fraction = i / 1000f;
+                assertClose(ColorUtil.evaluateTransitionColor(fraction, color, 0x00FFFFFF), table.evaluate(fraction, color));
+            }
+        }
+    }
+
+    @Test
+    public void evaluate_missFallsBackToSwar() throws Exception {
+        ColorTransitionTable table = new ColorTransitionTable();
+        table.rebuild(COLORS, 1, 0x00FFFFFF);
+
+        int color = 0xFF123456;
+        assertEquals(ColorTransitionTable.evaluateSwar(0.5f, color, 0x00FFFFFF), table.evaluate(0.5f, color));
+    }
+
+    @Test
+    public void evaluateSwar_matchesReferenceWithinOneStep() throws Exception {
+        for (int start : COLORS) {
+            for (int end : COLORS) {
+                for (int i = 0; i <= 100; i++) {
+                    float fraction = i / 100f;
+                    assertClose(ColorUtil.evaluateTransitionColor(fraction, start, end),
+                            ColorTransitionTable.evaluateSwar(fraction, start, end));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void evaluateSwar_returnsEndsExactly() throws Exception {
+        assertEquals(0xFFF44336, ColorTransitionTable.evaluateSwar(0f, 0xFFF44336, 0x00FFFFFF));
+        assertEquals(0x00FFFFFF, ColorTransitionTable.evaluateSwar(1f, 0xFFF44336, 0x00FFFFFF));
+    }
+
+    private static void assertClose(int expected, int actual) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            int difference = Math.abs(((expected >>> shift) & 0xFF) - ((actual >>> shift) & 0xFF));
+            assertTrue(Integer.toHexString(expected) + " != " + Integer.toHexString(actual), difference <= 1);
+        }
+    }
+}
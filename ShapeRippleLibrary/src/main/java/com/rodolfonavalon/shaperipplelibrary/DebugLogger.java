@@ -1,27 +1,115 @@
 package com.rodolfonavalon.shaperipplelibrary;
 
+import android.os.SystemClock;
 import android.util.Log;
 
+/**
+ * The logger of the library, a message is only logged when its level is at least the {@link #logLevel}
+ * and at most {@value #MAX_LOGS_PER_SECOND} messages are logged per second so logging from a frame
+ * does not flood the log.
+ * <p>
+ * Messages with values are only built after the level is checked so nothing is allocated when logging
+ * is disabled.
+ */
 class DebugLogger {
+
+    /**
+     * The level where nothing is logged
+     */
+    static final int LEVEL_NONE = Integer.MAX_VALUE;
+
+    private static final int MAX_LOGS_PER_SECOND = 10;
+
+    private static final long RATE_WINDOW_MILLIS = 1000;
+
+    /**
+     * The minimum {@link Log} priority that is logged, nothing is logged by default
+     */
+    private static int logLevel = LEVEL_NONE;
+
+    /**
+     * The start of the current rate window
+     */
+    private static long windowStartMillis;
+
+    /**
+     * The number of messages logged in the current rate window
+     */
+    private static int windowLogs;
+
+    /**
+     * The number of messages dropped in the current rate window
+     */
+    private static int droppedLogs;
+
+    /**
+     * Change the minimum {@link Log} priority that is logged
+     *
+     * @param logLevel The priority such as {@link Log#DEBUG} or {@link #LEVEL_NONE}
+     */
+    static void setLogLevel(int logLevel) {
+        DebugLogger.logLevel = logLevel;
+    }
+
+    /**
+     * @return True when the messages of the level are logged
+     */
+    static boolean isLoggable(int level) {
+        return level >= logLevel;
+    }
+
     /**
      * Log DEBUG with message
      */
     static void logD(String message) {
-        if (!ShapeRipple.DEBUG) {
+        if (!isLoggable(Log.DEBUG)) {
             return;
         }
 
-        Log.d(ShapeRipple.TAG, message);
+        log(Log.DEBUG, message);
+    }
+
+    /**
+     * Log DEBUG with message followed by the value, the message is only built when it is logged
+     */
+    static void logD(String message, int value) {
+        if (!isLoggable(Log.DEBUG)) {
+            return;
+        }
+
+        log(Log.DEBUG, message + value);
     }
 
     /**
      * Log ERROR with message
      */
     static void logE(String message) {
-        if (!ShapeRipple.DEBUG) {
+        if (!isLoggable(Log.ERROR)) {
+            return;
+        }
+
+        log(Log.ERROR, message);
+    }
+
+    private static void log(int priority, String message) {
+        long nowMillis = SystemClock.uptimeMillis();
+
+        if (nowMillis - windowStartMillis >= RATE_WINDOW_MILLIS) {
+            if (droppedLogs > 0) {
+                Log.println(Log.WARN, ShapeRipple.TAG, "Dropped " + droppedLogs + " messages");
+            }
+
+            windowStartMillis = nowMillis;
+            windowLogs = 0;
+            droppedLogs = 0;
+        }
+
+        if (windowLogs >= MAX_LOGS_PER_SECOND) {
+            droppedLogs++;
             return;
         }
 
-        Log.e(ShapeRipple.TAG, message);
+        windowLogs++;
+        Log.println(priority, ShapeRipple.TAG, message);
     }
 }
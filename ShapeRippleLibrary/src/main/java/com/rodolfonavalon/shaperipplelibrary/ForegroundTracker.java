@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Tracks the started activities of the process to know when it goes to the background and back. The
+ * activities are only weakly referenced and each one is counted once, so an activity that is both
+ * seeded and then started is not counted twice.
+ *
+ * @param <T> The type of the activity, kept generic so the tracking is not tied to the framework
+ */
+final class ForegroundTracker<T> {
+
+    private final Map<T, Boolean> startedActivities = new WeakHashMap<>();
+
+    /**
+     * Marks the activity as started, this is also used to seed the activity that registers the first ripple
+     * since the listener might be registered after it was started.
+     *
+     * @param activity The started activity
+     * @return True when the process has just moved to the foreground
+     */
+    boolean start(T activity) {
+        boolean isBackground = startedActivities.isEmpty();
+        startedActivities.put(activity, Boolean.TRUE);
+        return isBackground;
+    }
+
+    /**
+     * Marks the activity as stopped, an activity that was never seen is ignored
+     *
+     * @param activity The stopped activity
+     * @return True when the process has just moved to the background
+     */
+    boolean stop(T activity) {
+        return startedActivities.remove(activity) != null && startedActivities.isEmpty();
+    }
+
+    /**
+     * @return True when there is at least one started activity
+     */
+    boolean isForeground() {
+        return !startedActivities.isEmpty();
+    }
+}
@@ -1,3 +1,19 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
 package com.rodolfonavalon.shaperipplelibrary;
 
 import android.annotation.TargetApi;
@@ -7,88 +23,192 @@ import android.content.Context;
 import android.content.ContextWrapper;
 import android.os.Build;
 import android.os.Bundle;
+import android.view.Window;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import static com.rodolfonavalon.shaperipplelibrary.DebugLogger.logD;
-import static com.rodolfonavalon.shaperipplelibrary.DebugLogger.logE;
 
 /**
- * This is a controller for ICE_CREAM_SANDWICH and up, where is handles the activity life cycle.
- * Each call to {@link Activity#onPause()} will stop the ripple and restart it when it call the
- * {@link Activity#onResume()}.
+ * This is a process wide controller for ICE_CREAM_SANDWICH and up, where is handles the activity life cycle
+ * of every {@link ShapeRipple}. Each call to {@link Activity#onPause()} will pause the ripples of the activity
+ * and restart them when it call the {@link Activity#onResume()}.
  * <p>
- * We make sure that the listener is detached when activity has been destroyed.s
+ * A single listener is registered to the {@link Application}, the ripples and the activities are only weakly
+ * referenced so nothing is leaked. Ripples that are not in an activity are paused when every activity is stopped,
+ * which is when the process goes to the background, and restarted when an activity is started again.
+ * <p>
+ * NOTE: Every method must be called from the main thread.
  */
 @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
-class LifeCycleManager implements Application.ActivityLifecycleCallbacks {
+final class LifeCycleManager implements Application.ActivityLifecycleCallbacks {
+
+    private static LifeCycleManager instance;
+
+    /**
+     * The ripples of each activity
+     */
+    private final Map<Activity, List<WeakReference<ShapeRipple>>> activityRipples = new WeakHashMap<>();
+
+    /**
+     * The ripples that are not in an activity such as the ones created with the application context
+     */
+    private final List<WeakReference<ShapeRipple>> processRipples = new ArrayList<>();
+
+    /**
+     * The started activities, the process is in the background when there are none
+     */
+    private final ForegroundTracker<Activity> foregroundTracker = new ForegroundTracker<>();
+
+    private LifeCycleManager() {}
+
+    /**
+     * Registers the ripple to be paused and restarted with its activity, or with the process when
+     * the context of the ripple is not an activity.
+     *
+     * @param shapeRipple The ripple to register
+     */
+    static void register(ShapeRipple shapeRipple) {
+        Context context = shapeRipple.getContext();
+        Activity activity = getActivity(context);
+
+        Application application = activity != null
+                ? activity.getApplication()
+                : getApplication(context);
+
+        if (application == null) {
+            logD("There is no application, the life cycle of the ripple is not handled!!");
+            return;
+        }
 
-    private ShapeRipple shapeRipple;
-    private Activity activity;
+        if (instance == null) {
+            instance = new LifeCycleManager();
+            application.registerActivityLifecycleCallbacks(instance);
+        }
 
-    LifeCycleManager(ShapeRipple shapeRipple) {
-        this.shapeRipple = shapeRipple;
+        instance.add(activity, shapeRipple);
     }
 
-    void attachListener() {
-        if (shapeRipple == null) {
-            logE("Shape Ripple is null, activity listener is not attached!!");
+    private void add(Activity activity, ShapeRipple shapeRipple) {
+        if (activity == null) {
+            processRipples.add(new WeakReference<>(shapeRipple));
             return;
         }
 
-        activity = getActivity(shapeRipple.getContext());
-        activity.getApplication().registerActivityLifecycleCallbacks(this);
-    }
+        // the listener might be registered after the activity was started so it is counted here when it is
+        // shown, an activity that is not started yet is counted by its own start
+        if (isShown(activity)) {
+            foregroundTracker.start(activity);
+        }
 
-    private void detachListener() {
-        if (activity == null) {
-            return;
+        List<WeakReference<ShapeRipple>> ripples = activityRipples.get(activity);
+        if (ripples == null) {
+            ripples = new ArrayList<>();
+            activityRipples.put(activity, ripples);
         }
 
-        activity.getApplication().unregisterActivityLifecycleCallbacks(this);
+        ripples.add(new WeakReference<>(shapeRipple));
     }
 
     @Override
     public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
 
     @Override
-    public void onActivityStarted(Activity activity) {}
+    public void onActivityStarted(Activity activity) {
+        if (!foregroundTracker.start(activity)) {
+            return;
+        }
+
+        restartAll(processRipples);
+        logD("Process is in the Foreground");
+    }
 
     @Override
     public void onActivityResumed(Activity activity) {
-        if (shapeRipple == null || this.activity != activity) {
+        List<WeakReference<ShapeRipple>> ripples = activityRipples.get(activity);
+        if (ripples == null) {
             return;
         }
 
-        shapeRipple.restartRipple();
+        restartAll(ripples);
         logD("Activity is Resumed");
     }
 
     @Override
     public void onActivityPaused(Activity activity) {
-        if (shapeRipple == null || this.activity != activity) {
+        List<WeakReference<ShapeRipple>> ripples = activityRipples.get(activity);
+        if (ripples == null) {
             return;
         }
 
-        shapeRipple.stop();
+        pauseAll(ripples);
         logD("Activity is Paused");
     }
 
     @Override
-    public void onActivityStopped(Activity activity) {}
+    public void onActivityStopped(Activity activity) {
+        if (!foregroundTracker.stop(activity)) {
+            return;
+        }
+
+        // the ripples of the activities are already paused with their activity
+        pauseAll(processRipples);
+        logD("Process is in the Background");
+    }
 
     @Override
     public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
 
     @Override
     public void onActivityDestroyed(Activity activity) {
-        if (this.activity != activity) {
-            return;
+        if (activityRipples.remove(activity) != null) {
+            logD("Activity is Destroyed");
         }
+    }
 
-        detachListener();
-        logD("Activity is Destroyed");
+    /**
+     * Pauses the ripples and removes the ones that are garbage collected
+     */
+    private static void pauseAll(List<WeakReference<ShapeRipple>> ripples) {
+        for (int i = ripples.size() - 1; i >= 0; i--) {
+            ShapeRipple shapeRipple = ripples.get(i).get();
+            if (shapeRipple == null) {
+                ripples.remove(i);
+                continue;
+            }
+
+            shapeRipple.pause();
+        }
     }
 
-    private Activity getActivity(Context context) {
+    /**
+     * Restarts the ripples and removes the ones that are garbage collected
+     */
+    private static void restartAll(List<WeakReference<ShapeRipple>> ripples) {
+        for (int i = ripples.size() - 1; i >= 0; i--) {
+            ShapeRipple shapeRipple = ripples.get(i).get();
+            if (shapeRipple == null) {
+                ripples.remove(i);
+                continue;
+            }
+
+            shapeRipple.restartRipple();
+        }
+    }
+
+    /**
+     * @return True when the window of the activity is shown, which is only while the activity is started
+     */
+    private static boolean isShown(Activity activity) {
+        Window window = activity.getWindow();
+        return window != null && window.getDecorView().isShown();
+    }
+
+    private static Activity getActivity(Context context) {
         while (context instanceof ContextWrapper) {
             if (context instanceof Activity) {
                 return (Activity) context;
@@ -96,6 +216,11 @@ class LifeCycleManager implements Application.ActivityLifecycleCallbacks {
             context = ((ContextWrapper) context).getBaseContext();
         }
 
-        throw new IllegalArgumentException("Context does not derived from any activity, Do not use the Application Context!!");
+        return null;
+    }
+
+    private static Application getApplication(Context context) {
+        Context applicationContext = context.getApplicationContext();
+        return applicationContext instanceof Application ? (Application) applicationContext : null;
     }
 }
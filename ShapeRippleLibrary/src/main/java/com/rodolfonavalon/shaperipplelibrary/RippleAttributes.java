@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.util.AttributeSet;
+
+import com.rodolfonavalon.shaperipplecore.RippleEngine;
+import com.rodolfonavalon.shaperipplecore.data.RippleEmitterPool;
+
+/**
+ * The configuration of the ripples read from the XML attributes, it holds the defaults of every attribute so
+ * the {@link ShapeRipple} and the {@link ShapeRippleRenderer} of the surface views start from the same values.
+ * <p>
+ * The attributes that only apply to the view drawing are read as well, each host ignores what it does not support.
+ */
+final class RippleAttributes {
+
+    private static final int NO_VALUE = RippleEngine.NO_VALUE;
+
+    /**
+     * Default color of the ripple
+     */
+    static final int DEFAULT_RIPPLE_COLOR = Color.parseColor("#FFF44336");
+
+    /**
+     * Default color of the start ripple color transition
+     */
+    static final int DEFAULT_RIPPLE_FROM_COLOR = Color.parseColor("#FFF44336");
+
+    /**
+     * Default color of the end ripple color transition
+     */
+    static final int DEFAULT_RIPPLE_TO_COLOR = Color.parseColor("#00FFFFFF");
+
+    /**
+     * The default duration of the ripples
+     */
+    static final int DEFAULT_RIPPLE_DURATION = 1500;
+
+    int rippleColor = DEFAULT_RIPPLE_COLOR;
+
+    int rippleFromColor = DEFAULT_RIPPLE_FROM_COLOR;
+
+    int rippleToColor = DEFAULT_RIPPLE_TO_COLOR;
+
+    int rippleDuration = DEFAULT_RIPPLE_DURATION;
+
+    int rippleStrokeWidth;
+
+    int rippleMaximumRadius = NO_VALUE;
+
+    int rippleCount = NO_VALUE;
+
+    int rippleKeyframeResolution = NO_VALUE;
+
+    int rippleEmitterCapacity = RippleEmitterPool.DEFAULT_CAPACITY;
+
+    boolean enableColorTransition = true;
+
+    boolean enableSingleRipple;
+
+    boolean enableRandomPosition;
+
+    boolean enableRandomColor;
+
+    boolean enableStrokeStyle;
+
+    boolean enableSpriteRendering;
+
+    boolean enableSharedClock;
+
+    boolean enableQualityGovernor;
+
+    boolean enableTouchEmitter;
+
+    boolean enableWorkerThread;
+
+    boolean enableTimeBasedSimulation;
+
+    /**
+     * Reads the attributes of the view, the defaults are kept when there are no attributes
+     */
+    RippleAttributes(Context context, AttributeSet attrs) {
+        rippleStrokeWidth = context.getResources().getDimensionPixelSize(R.dimen.default_stroke_width);
+
+        if (attrs == null) {
+            return;
+        }
+
+        TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.ConnectingRipple, 0, 0);
+
+        try {
+            rippleColor = ta.getColor(R.styleable.ConnectingRipple_ripple_color, rippleColor);
+            rippleFromColor = ta.getColor(R.styleable.ConnectingRipple_ripple_from_color, rippleFromColor);
+            rippleToColor = ta.getColor(R.styleable.ConnectingRipple_ripple_to_color, rippleToColor);
+            rippleDuration = ta.getInteger(R.styleable.ConnectingRipple_ripple_duration, rippleDuration);
+            rippleStrokeWidth = ta.getDimensionPixelSize(R.styleable.ConnectingRipple_ripple_stroke_width, rippleStrokeWidth);
+            rippleMaximumRadius = ta.getDimensionPixelSize(R.styleable.ConnectingRipple_ripple_maximum_radius, rippleMaximumRadius);
+            rippleCount = ta.getInteger(R.styleable.ConnectingRipple_ripple_count, rippleCount);
+            rippleKeyframeResolution = ta.getInteger(R.styleable.ConnectingRipple_ripple_keyframe_resolution, rippleKeyframeResolution);
+            rippleEmitterCapacity = ta.getInteger(R.styleable.ConnectingRipple_ripple_emitter_capacity, rippleEmitterCapacity);
+            enableColorTransition = ta.getBoolean(R.styleable.ConnectingRipple_enable_color_transition, enableColorTransition);
+            enableSingleRipple = ta.getBoolean(R.styleable.ConnectingRipple_enable_single_ripple, enableSingleRipple);
+            enableRandomPosition = ta.getBoolean(R.styleable.ConnectingRipple_enable_random_position, enableRandomPosition);
+            enableRandomColor = ta.getBoolean(R.styleable.ConnectingRipple_enable_random_color, enableRandomColor);
+            enableStrokeStyle = ta.getBoolean(R.styleable.ConnectingRipple_enable_stroke_style, enableStrokeStyle);
+            enableSpriteRendering = ta.getBoolean(R.styleable.ConnectingRipple_enable_sprite_rendering, enableSpriteRendering);
+            enableSharedClock = ta.getBoolean(R.styleable.ConnectingRipple_enable_shared_clock, enableSharedClock);
+            enableQualityGovernor = ta.getBoolean(R.styleable.ConnectingRipple_enable_quality_governor, enableQualityGovernor);
+            enableTouchEmitter = ta.getBoolean(R.styleable.ConnectingRipple_enable_touch_emitter, enableTouchEmitter);
+            enableWorkerThread = ta.getBoolean(R.styleable.ConnectingRipple_enable_worker_thread, enableWorkerThread);
+            enableTimeBasedSimulation = ta.getBoolean(R.styleable.ConnectingRipple_enable_time_based_simulation, enableTimeBasedSimulation);
+        } finally {
+            ta.recycle();
+        }
+    }
+}
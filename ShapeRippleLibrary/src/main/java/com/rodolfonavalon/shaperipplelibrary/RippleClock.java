@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+import com.rodolfonavalon.shaperipplecore.RippleEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process wide clock of the {@link ShapeRipple} that enabled the shared clock, it ticks once per
+ * vsync for every attached view instead of a frame callback per view.
+ * <p>
+ * Views with the same configuration, duration and interpolator share one {@link Timeline} so the
+ * ripples are only simulated once per distinct configuration, each view only draws the shared state.
+ * <p>
+ * NOTE: Every method must be called from the main thread.
+ */
+final class RippleClock implements Choreographer.FrameCallback, Runnable {
+
+    private static final long NANOS_PER_MILLIS = 1000000L;
+
+    /**
+     * The delay of each frame when the {@link Choreographer} is not available
+     */
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
+    private static final long NO_TIME = -1;
+
+    /**
+     * The trace section of the update of the shared ripples
+     */
+    private static final String TRACE_SECTION_UPDATE = "RippleClock#update";
+
+    private static RippleClock instance;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    /**
+     * The timelines that has at least one attached view
+     */
+    private final List<Timeline> timelines = new ArrayList<>();
+
+    /**
+     * Reusable list of the views that changed their configuration in the current frame
+     */
+    private final List<ShapeRipple> changedViews = new ArrayList<>();
+
+    /**
+     * Flag for when the next frame is requested
+     */
+    private boolean isFramePending;
+
+    /**
+     * The simulation shared by the views with the same configuration
+     */
+    private static final class Timeline {
+
+        private final RippleEngine engine = new RippleEngine();
+
+        private final List<Attachment> attachments = new ArrayList<>();
+
+        private final long durationNanos;
+
+        private final Interpolator interpolator;
+
+        /**
+         * The frame time where the progress of the timeline is 0, it is calculated on the first frame
+         */
+        private long startTimeNanos = NO_TIME;
+
+        /**
+         * The progress of the last frame before interpolation, the timeline repeated when it goes back
+         */
+        private float lastProgress;
+
+        private Timeline(ShapeRipple shapeRipple) {
+            this.engine.copyConfiguration(shapeRipple.getRippleEngine());
+            this.engine.initializeEntries();
+            this.durationNanos = shapeRipple.getRippleDuration() * NANOS_PER_MILLIS;
+            this.interpolator = shapeRipple.getRippleInterpolator();
+        }
+
+        private boolean matches(ShapeRipple shapeRipple) {
+            return durationNanos == shapeRipple.getRippleDuration() * NANOS_PER_MILLIS
+                    && interpolator == shapeRipple.getRippleInterpolator()
+                    && engine.hasSameConfiguration(shapeRipple.getRippleEngine());
+        }
+
+        /**
+         * @return False when there are no ripples to draw
+         */
+        private boolean render(long frameTimeNanos) {
+            if (startTimeNanos == NO_TIME) {
+                startTimeNanos = frameTimeNanos;
+            }
+
+            long elapsedNanos = Math.max(frameTimeNanos - startTimeNanos, 0);
+            float progress = durationNanos > 0 ? (elapsedNanos % durationNanos) / (float) durationNanos : 0;
+            boolean isRepeated = progress < lastProgress;
+            lastProgress = progress;
+            return engine.render(interpolator.getInterpolation(progress), isRepeated);
+        }
+    }
+
+    /**
+     * A view attached to a {@link Timeline}
+     */
+    private static final class Attachment {
+
+        private final ShapeRipple shapeRipple;
+
+        /**
+         * The configuration version of the view when it was attached
+         */
+        private final int configurationVersion;
+
+        private Attachment(ShapeRipple shapeRipple) {
+            this.shapeRipple = shapeRipple;
+            this.configurationVersion = shapeRipple.getSharedClockVersion();
+        }
+    }
+
+    private RippleClock() {}
+
+    static RippleClock getInstance() {
+        if (instance == null) {
+            instance = new RippleClock();
+        }
+        return instance;
+    }
+
+    /**
+     * Attaches the view to the timeline of its configuration, the view joins the current progress of the
+     * timeline when it is shared with other views.
+     *
+     * @param shapeRipple The view to attach
+     */
+    void attach(ShapeRipple shapeRipple) {
+        if (findTimeline(shapeRipple) != null) {
+            return;
+        }
+
+        Timeline timeline = null;
+        for (int i = 0; i < timelines.size(); i++) {
+            if (timelines.get(i).matches(shapeRipple)) {
+                timeline = timelines.get(i);
+                break;
+            }
+        }
+
+        if (timeline == null) {
+            timeline = new Timeline(shapeRipple);
+            timelines.add(timeline);
+        }
+
+        timeline.attachments.add(new Attachment(shapeRipple));
+        shapeRipple.setSharedEngine(timeline.engine);
+
+        postFrame();
+    }
+
+    /**
+     * Detaches the view from its timeline, the timeline is removed when no other view is attached.
+     * The view keeps the shared engine until it changes it.
+     *
+     * @param shapeRipple The view to detach
+     */
+    void detach(ShapeRipple shapeRipple) {
+        Timeline timeline = findTimeline(shapeRipple);
+        if (timeline == null) {
+            return;
+        }
+
+        List<Attachment> attachments = timeline.attachments;
+        for (int i = 0; i < attachments.size(); i++) {
+            if (attachments.get(i).shapeRipple == shapeRipple) {
+                attachments.remove(i);
+                break;
+            }
+        }
+
+        if (attachments.isEmpty()) {
+            timelines.remove(timeline);
+        }
+
+        if (timelines.isEmpty()) {
+            removeFrame();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFramePending = false;
+
+        // move the views which changed their configuration to their new timeline
+        for (int i = 0; i < timelines.size(); i++) {
+            List<Attachment> attachments = timelines.get(i).attachments;
+            for (int j = 0; j < attachments.size(); j++) {
+                Attachment attachment = attachments.get(j);
+                if (attachment.configurationVersion != attachment.shapeRipple.getSharedClockVersion()) {
+                    changedViews.add(attachment.shapeRipple);
+                }
+            }
+        }
+
+        for (int i = 0; i < changedViews.size(); i++) {
+            detach(changedViews.get(i));
+            attach(changedViews.get(i));
+        }
+        changedViews.clear();
+
+        // each timeline is simulated once for all of its views, the views can
+        // detach while drawing so the lists are iterated backwards
+        for (int i = timelines.size() - 1; i >= 0; i--) {
+            Timeline timeline = timelines.get(i);
+
+            RippleTrace.beginSection(TRACE_SECTION_UPDATE);
+            boolean isRendered = timeline.render(frameTimeNanos);
+            RippleTrace.endSection();
+
+            if (!isRendered) {
+                continue;
+            }
+
+            List<Attachment> attachments = timeline.attachments;
+            for (int j = attachments.size() - 1; j >= 0; j--) {
+                attachments.get(j).shapeRipple.onSharedFrame();
+            }
+        }
+
+        if (!timelines.isEmpty()) {
+            postFrame();
+        }
+    }
+
+    @Override
+    public void run() {
+        doFrame(System.nanoTime());
+    }
+
+    /**
+     * @return The timeline where the view is attached or null
+     */
+    private Timeline findTimeline(ShapeRipple shapeRipple) {
+        for (int i = 0; i < timelines.size(); i++) {
+            List<Attachment> attachments = timelines.get(i).attachments;
+            for (int j = 0; j < attachments.size(); j++) {
+                if (attachments.get(j).shapeRipple == shapeRipple) {
+                    return timelines.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void postFrame() {
+        if (isFramePending) {
+            return;
+        }
+
+        isFramePending = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            handler.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    private void removeFrame() {
+        isFramePending = false;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            removeFrameCallback();
+        } else {
+            handler.removeCallbacks(this);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void removeFrameCallback() {
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+/**
+ * The pending changes of the ripples of a {@link ShapeRipple} while it is edited with {@link ShapeRipple#edit()},
+ * the ripples changed by the setters are only created or re configured once when the edit is closed.
+ * <p>
+ * Only the setters are deferred, the ripples created by the layout are created right away so an edit that is
+ * never applied does not leave the view without ripples.
+ */
+final class RippleEditTransaction {
+
+    static final int APPLY_NOTHING = 0;
+
+    static final int APPLY_RECONFIGURE = 1;
+
+    static final int APPLY_INITIALIZE = 2;
+
+    private boolean isOpen;
+
+    /**
+     * Flag for when a change needs the ripples to be created again
+     */
+    private boolean isInitializePending;
+
+    /**
+     * Flag for when a change needs the ripples to be re configured
+     */
+    private boolean isReconfigurePending;
+
+    void open() {
+        isOpen = true;
+    }
+
+    boolean isOpen() {
+        return isOpen;
+    }
+
+    /**
+     * @return True when the ripples are created when the edit is closed instead of now
+     */
+    boolean deferInitialize() {
+        if (isOpen) {
+            isInitializePending = true;
+        }
+        return isOpen;
+    }
+
+    /**
+     * @return True when the ripples are re configured when the edit is closed instead of now
+     */
+    boolean deferReconfigure() {
+        if (isOpen) {
+            isReconfigurePending = true;
+        }
+        return isOpen;
+    }
+
+    /**
+     * Called every time the ripples are created, they are created with every change made so far
+     */
+    void onInitialized() {
+        isInitializePending = false;
+        isReconfigurePending = false;
+    }
+
+    /**
+     * Closes the edit, the pending changes are cleared
+     *
+     * @return What needs to be done with the ripples, {@link #APPLY_INITIALIZE}, {@link #APPLY_RECONFIGURE}
+     * or {@link #APPLY_NOTHING}
+     */
+    int close() {
+        int apply = isInitializePending ? APPLY_INITIALIZE
+                : isReconfigurePending ? APPLY_RECONFIGURE
+                : APPLY_NOTHING;
+
+        isOpen = false;
+        isInitializePending = false;
+        isReconfigurePending = false;
+        return apply;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+/**
+ * Drives the ripple animation with the vsync frame time of the {@link Choreographer}, the progress
+ * of the animation is calculated from the elapsed nanoseconds so nothing is allocated per frame.
+ * <p>
+ * The same driver is reused for the whole life of the {@link ShapeRipple}, pausing keeps the
+ * elapsed time so resuming continues where the animation was left off.
+ * <p>
+ * Below {@link Build.VERSION_CODES#JELLY_BEAN} the frames are posted to the view with a fixed delay.
+ */
+class RippleFrameDriver implements Choreographer.FrameCallback, Runnable {
+
+    private static final long NANOS_PER_MILLIS = 1000000L;
+
+    /**
+     * The delay of each frame when the {@link Choreographer} is not available
+     */
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
+    private static final long NO_TIME = -1;
+
+    private static final float NO_PROGRESS = -1;
+
+    private final ShapeRipple shapeRipple;
+
+    /**
+     * The duration of a single ripple in nanoseconds
+     */
+    private long durationNanos;
+
+    /**
+     * The frame time where the progress of the animation is 0, it is calculated on the
+     * first frame after starting or resuming
+     */
+    private long startTimeNanos = NO_TIME;
+
+    /**
+     * The frame time of the last frame
+     */
+    private long lastFrameTimeNanos = NO_TIME;
+
+    /**
+     * The progress of the last frame before interpolation, {@link #NO_PROGRESS} before the first frame
+     */
+    private float lastProgress = NO_PROGRESS;
+
+    /**
+     * The elapsed time of the animation when it was paused
+     */
+    private long pausedElapsedNanos;
+
+    /**
+     * Flag for when the frames are being requested
+     */
+    private boolean isRunning;
+
+    /**
+     * Flag for when the driver is paused, started but not running
+     */
+    private boolean isPaused;
+
+    RippleFrameDriver(ShapeRipple shapeRipple) {
+        this.shapeRipple = shapeRipple;
+    }
+
+    /**
+     * Starts the animation from the beginning
+     */
+    void start() {
+        stop();
+
+        isRunning = true;
+        postFrame();
+    }
+
+    /**
+     * Pauses the animation, the elapsed time is kept for {@link #resume()}
+     */
+    void pause() {
+        if (!isRunning) {
+            return;
+        }
+
+        if (startTimeNanos != NO_TIME) {
+            pausedElapsedNanos = lastFrameTimeNanos - startTimeNanos;
+        }
+
+        removeFrame();
+        startTimeNanos = NO_TIME;
+        isRunning = false;
+        isPaused = true;
+    }
+
+    /**
+     * Resumes the animation where it was paused
+     */
+    void resume() {
+        if (!isPaused) {
+            return;
+        }
+
+        isPaused = false;
+        isRunning = true;
+        postFrame();
+    }
+
+    /**
+     * Stops the animation, the next {@link #start()} will start from the beginning
+     */
+    void stop() {
+        removeFrame();
+
+        startTimeNanos = NO_TIME;
+        lastFrameTimeNanos = NO_TIME;
+        lastProgress = NO_PROGRESS;
+        pausedElapsedNanos = 0;
+        isRunning = false;
+        isPaused = false;
+    }
+
+    /**
+     * @return True when the frames are being requested
+     */
+    boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * @return True when the animation was paused by {@link #pause()}
+     */
+    boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Change the duration of a single ripple, the current progress is kept
+     *
+     * @param millis the duration in milliseconds
+     */
+    void setDuration(int millis) {
+        long newDurationNanos = millis * NANOS_PER_MILLIS;
+
+        if (startTimeNanos != NO_TIME && durationNanos > 0) {
+            float progress = progress(lastFrameTimeNanos);
+            startTimeNanos = lastFrameTimeNanos - (long) (progress * newDurationNanos);
+        } else if (pausedElapsedNanos > 0 && durationNanos > 0) {
+            pausedElapsedNanos = pausedElapsedNanos * newDurationNanos / durationNanos;
+        }
+
+        durationNanos = newDurationNanos;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!isRunning) {
+            return;
+        }
+
+        if (startTimeNanos == NO_TIME) {
+            startTimeNanos = frameTimeNanos - pausedElapsedNanos;
+            pausedElapsedNanos = 0;
+        }
+
+        lastFrameTimeNanos = frameTimeNanos;
+
+        // the progress only goes back before the interpolation when the animation repeats
+        float progress = progress(frameTimeNanos);
+        boolean isRepeated = lastProgress != NO_PROGRESS && progress < lastProgress;
+        lastProgress = progress;
+
+        shapeRipple.render(progress, isRepeated, frameTimeNanos);
+
+        // the ripple can pause the driver while rendering
+        if (isRunning) {
+            postFrame();
+        }
+    }
+
+    @Override
+    public void run() {
+        doFrame(System.nanoTime());
+    }
+
+    /**
+     * @param frameTimeNanos The frame time
+     * @return The progress of the animation from 0 to 1 on the frame time
+     */
+    private float progress(long frameTimeNanos) {
+        if (durationNanos <= 0) {
+            return 0;
+        }
+
+        long elapsedNanos = Math.max(frameTimeNanos - startTimeNanos, 0);
+        return (elapsedNanos % durationNanos) / (float) durationNanos;
+    }
+
+    private void postFrame() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            shapeRipple.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    private void removeFrame() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            removeFrameCallback();
+        } else {
+            shapeRipple.removeCallbacks(this);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void removeFrameCallback() {
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+/**
+ * Measures the cost of the frames of a {@link ShapeRipple} and steps the quality down when the frames
+ * run over budget, and back up when they are cheap again.
+ * <p>
+ * The frames are measured in windows of {@value #WINDOW_FRAMES} drawn frames, a window is over budget
+ * when the average time of {@link ShapeRipple#render(float, long)} and {@link ShapeRipple#onDraw} is more than
+ * half of a frame or too many frames arrived late. The quality is only stepped up after
+ * {@value #RECOVER_WINDOWS} cheap windows in a row so it does not bounce between two levels.
+ * <p>
+ * Each quality level includes the levels before it.
+ */
+class RippleQualityGovernor {
+
+    /**
+     * Everything is drawn as configured
+     */
+    static final int QUALITY_FULL = 0;
+
+    /**
+     * The ripples are drawn without anti alias
+     */
+    static final int QUALITY_NO_ANTIALIAS = 1;
+
+    /**
+     * The ripples are drawn from sprites when the shape supports them
+     */
+    static final int QUALITY_SPRITES = 2;
+
+    /**
+     * The ripples are only updated every other frame
+     */
+    static final int QUALITY_HALF_FRAME_RATE = 3;
+
+    /**
+     * Only half of the ripples are drawn, the others keep running without being drawn
+     */
+    static final int QUALITY_HALF_RIPPLES = 4;
+
+    /**
+     * The duration of a single frame at 60 frames per second
+     */
+    private static final long FRAME_BUDGET_NANOS = 16666667L;
+
+    private static final int WINDOW_FRAMES = 30;
+
+    private static final int RECOVER_WINDOWS = 4;
+
+    /**
+     * The time between two frames that is an idle period of the view instead of a late frame
+     */
+    private static final long IDLE_NANOS = FRAME_BUDGET_NANOS * 10;
+
+    private static final long NO_TIME = -1;
+
+    private final ShapeRipple shapeRipple;
+
+    private int qualityLevel = QUALITY_FULL;
+
+    /**
+     * The render and draw time of the current window
+     */
+    private long windowWorkNanos;
+
+    /**
+     * The number of drawn frames of the current window
+     */
+    private int windowFrames;
+
+    /**
+     * The number of frames of the current window that arrived later than expected
+     */
+    private int windowLateFrames;
+
+    /**
+     * The number of cheap windows in a row
+     */
+    private int cheapWindows;
+
+    private long lastDrawTimeNanos = NO_TIME;
+
+    /**
+     * Flag for the frame that is skipped at {@link #QUALITY_HALF_FRAME_RATE}
+     */
+    private boolean isFrameSkipped;
+
+    RippleQualityGovernor(ShapeRipple shapeRipple) {
+        this.shapeRipple = shapeRipple;
+    }
+
+    /**
+     * @return The current quality level
+     */
+    int getQualityLevel() {
+        return qualityLevel;
+    }
+
+    /**
+     * Called before updating the ripples of a frame
+     *
+     * @return False when the frame should be skipped
+     */
+    boolean onFrame() {
+        if (qualityLevel < QUALITY_HALF_FRAME_RATE) {
+            return true;
+        }
+
+        isFrameSkipped = !isFrameSkipped;
+        return !isFrameSkipped;
+    }
+
+    /**
+     * @param renderNanos The time to update the ripples of a frame
+     */
+    void onRendered(long renderNanos) {
+        windowWorkNanos += renderNanos;
+    }
+
+    /**
+     * @param drawStartNanos The time when the ripples started drawing
+     * @param drawNanos The time to draw the ripples
+     */
+    void onDrawn(long drawStartNanos, long drawNanos) {
+        windowWorkNanos += drawNanos;
+        windowFrames++;
+
+        if (lastDrawTimeNanos != NO_TIME) {
+            long expectedNanos = qualityLevel >= QUALITY_HALF_FRAME_RATE ? FRAME_BUDGET_NANOS * 2 : FRAME_BUDGET_NANOS;
+            long intervalNanos = drawStartNanos - lastDrawTimeNanos;
+
+            if (intervalNanos > expectedNanos * 3 / 2 && intervalNanos < IDLE_NANOS) {
+                windowLateFrames++;
+            }
+        }
+        lastDrawTimeNanos = drawStartNanos;
+
+        if (windowFrames == WINDOW_FRAMES) {
+            evaluateWindow();
+        }
+    }
+
+    /**
+     * Forgets the measured frames, called when the animation is stopped or paused
+     */
+    void reset() {
+        windowWorkNanos = 0;
+        windowFrames = 0;
+        windowLateFrames = 0;
+        cheapWindows = 0;
+        lastDrawTimeNanos = NO_TIME;
+    }
+
+    private void evaluateWindow() {
+        long averageWorkNanos = windowWorkNanos / windowFrames;
+        boolean isOverBudget = averageWorkNanos > FRAME_BUDGET_NANOS / 2 || windowLateFrames * 5 > windowFrames;
+        boolean isCheap = averageWorkNanos < FRAME_BUDGET_NANOS / 4 && windowLateFrames == 0;
+
+        windowWorkNanos = 0;
+        windowFrames = 0;
+        windowLateFrames = 0;
+
+        int newQualityLevel = qualityLevel;
+        if (isOverBudget) {
+            cheapWindows = 0;
+            newQualityLevel = Math.min(qualityLevel + 1, QUALITY_HALF_RIPPLES);
+        } else if (isCheap && ++cheapWindows >= RECOVER_WINDOWS) {
+            cheapWindows = 0;
+            newQualityLevel = Math.max(qualityLevel - 1, QUALITY_FULL);
+        } else if (!isCheap) {
+            cheapWindows = 0;
+        }
+
+        if (newQualityLevel != qualityLevel) {
+            qualityLevel = newQualityLevel;
+            shapeRipple.applyQualityLevel(qualityLevel);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+/**
+ * The performance statistics of a {@link ShapeRipple} over a number of drawn frames, given to the
+ * {@link ShapeRipple.OnRippleStatsListener}.
+ * <p>
+ * The same object is reused for every report, copy the values that needs to be kept.
+ */
+public class RippleStats {
+
+    /**
+     * The upper bound in milliseconds of each bucket of the frame interval histogram, the last
+     * bucket holds the frame intervals that are longer than every bound.
+     */
+    private static final int[] FRAME_INTERVAL_BUCKET_MILLIS = {8, 17, 33, 50, 100};
+
+    private static final long NANOS_PER_MILLIS = 1000000L;
+
+    /**
+     * A frame that arrives later than this is a missed frame, one and a half frame at 60 frames per second
+     */
+    private static final long MISSED_FRAME_NANOS = 25 * NANOS_PER_MILLIS;
+
+    /**
+     * The time between two frames that is an idle period of the view instead of a missed frame
+     */
+    private static final long IDLE_NANOS = 167 * NANOS_PER_MILLIS;
+
+    private static final long NO_TIME = -1;
+
+    private int frameCount;
+
+    private long renderNanos;
+
+    private long maxRenderNanos;
+
+    private long drawNanos;
+
+    private long maxDrawNanos;
+
+    private long liveRipples;
+
+    private long culledRipples;
+
+    private long recycledRipples;
+
+    private int missedFrames;
+
+    private final int[] frameIntervalHistogram = new int[FRAME_INTERVAL_BUCKET_MILLIS.length + 1];
+
+    private long lastDrawTimeNanos = NO_TIME;
+
+    /**
+     * The recycled count of the engine at the last drawn frame
+     */
+    private long lastRecycledCount = NO_TIME;
+
+    RippleStats() {}
+
+    /**
+     * @param renderNanos The time to update the ripples of a frame
+     */
+    void onRendered(long renderNanos) {
+        this.renderNanos += renderNanos;
+        this.maxRenderNanos = Math.max(this.maxRenderNanos, renderNanos);
+    }
+
+    /**
+     * @param drawStartNanos The time when the ripples started drawing
+     * @param drawNanos The time to draw the ripples
+     * @param liveRipples The number of ripples that are drawn
+     * @param culledRipples The number of ripples that are not drawn
+     * @param recycledCount The total recycled count of the engine
+     */
+    void onDrawn(long drawStartNanos, long drawNanos, int liveRipples, int culledRipples, long recycledCount) {
+        this.frameCount++;
+        this.drawNanos += drawNanos;
+        this.maxDrawNanos = Math.max(this.maxDrawNanos, drawNanos);
+        this.liveRipples += liveRipples;
+        this.culledRipples += culledRipples;
+
+        // the engine can change with the shared clock
+        if (lastRecycledCount != NO_TIME && recycledCount > lastRecycledCount) {
+            this.recycledRipples += recycledCount - lastRecycledCount;
+        }
+        lastRecycledCount = recycledCount;
+
+        if (lastDrawTimeNanos != NO_TIME) {
+            long intervalNanos = drawStartNanos - lastDrawTimeNanos;
+
+            int bucket = 0;
+            while (bucket < FRAME_INTERVAL_BUCKET_MILLIS.length
+                    && intervalNanos > FRAME_INTERVAL_BUCKET_MILLIS[bucket] * NANOS_PER_MILLIS) {
+                bucket++;
+            }
+            frameIntervalHistogram[bucket]++;
+
+            if (intervalNanos > MISSED_FRAME_NANOS && intervalNanos < IDLE_NANOS) {
+                missedFrames++;
+            }
+        }
+        lastDrawTimeNanos = drawStartNanos;
+    }
+
+    /**
+     * Clears the values of the report, the last frame is kept to measure the next interval
+     */
+    void reset() {
+        frameCount = 0;
+        renderNanos = 0;
+        maxRenderNanos = 0;
+        drawNanos = 0;
+        maxDrawNanos = 0;
+        liveRipples = 0;
+        culledRipples = 0;
+        recycledRipples = 0;
+        missedFrames = 0;
+
+        for (int i = 0; i < frameIntervalHistogram.length; i++) {
+            frameIntervalHistogram[i] = 0;
+        }
+    }
+
+    /**
+     * Forgets the last frame, called when the animation is stopped or paused so the pause is not an interval
+     */
+    void resetFrameTime() {
+        lastDrawTimeNanos = NO_TIME;
+    }
+
+    /**
+     * @return The number of drawn frames of the report
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return The total time to update the ripples in nanoseconds, 0 when the ripples are updated by the shared clock
+     */
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    /**
+     * @return The longest time to update the ripples of a frame in nanoseconds
+     */
+    public long getMaxRenderNanos() {
+        return maxRenderNanos;
+    }
+
+    /**
+     * @return The total time to draw the ripples in nanoseconds
+     */
+    public long getDrawNanos() {
+        return drawNanos;
+    }
+
+    /**
+     * @return The longest time to draw the ripples of a frame in nanoseconds
+     */
+    public long getMaxDrawNanos() {
+        return maxDrawNanos;
+    }
+
+    /**
+     * @return The total number of ripples that are drawn in every frame
+     */
+    public long getLiveRipples() {
+        return liveRipples;
+    }
+
+    /**
+     * @return The total number of ripples that are not drawn in every frame
+     */
+    public long getCulledRipples() {
+        return culledRipples;
+    }
+
+    /**
+     * @return The number of ripples that finished and started again
+     */
+    public long getRecycledRipples() {
+        return recycledRipples;
+    }
+
+    /**
+     * @return The number of frames that arrived later than one and a half frame
+     */
+    public int getMissedFrames() {
+        return missedFrames;
+    }
+
+    /**
+     * @return The number of buckets of the frame interval histogram
+     */
+    public int getFrameIntervalBucketCount() {
+        return frameIntervalHistogram.length;
+    }
+
+    /**
+     * @param bucket The bucket of the histogram
+     * @return The upper bound of the bucket in milliseconds, {@link Integer#MAX_VALUE} for the last bucket
+     */
+    public int getFrameIntervalBucketMillis(int bucket) {
+        return bucket < FRAME_INTERVAL_BUCKET_MILLIS.length ? FRAME_INTERVAL_BUCKET_MILLIS[bucket] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param bucket The bucket of the histogram
+     * @return The number of frame intervals that are longer than the previous bucket and not longer than the bucket
+     */
+    public int getFrameIntervalCount(int bucket) {
+        return frameIntervalHistogram[bucket];
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+
+/**
+ * System trace sections and counters of the ripples so they show up in systrace and Perfetto, nothing
+ * is traced until {@link ShapeRipple#enableTracing()} is called.
+ * <p>
+ * The sections are only available on {@link Build.VERSION_CODES#JELLY_BEAN_MR2} and up, and the counters
+ * on Android Q and up where {@code Trace.setCounter(String, long)} is public. The library is compiled against
+ * an older SDK so the counter is called through reflection, the method is only resolved once.
+ */
+final class RippleTrace {
+
+    /**
+     * The SDK of Android Q, it is not part of the SDK the library is compiled against
+     */
+    private static final int VERSION_CODE_Q = 29;
+
+    private static boolean isEnabled;
+
+    /**
+     * The {@code Trace.setCounter(String, long)} method, null until it is resolved or when it is not found
+     */
+    private static Method setCounterMethod;
+
+    private static boolean isSetCounterResolved;
+
+    /**
+     * The arguments of the {@link #setCounterMethod}, reused since the counters are only set from the main thread
+     */
+    private static final Object[] setCounterArgs = new Object[2];
+
+    private RippleTrace() {}
+
+    /**
+     * Enables the trace sections and counters
+     */
+    static void enable() {
+        isEnabled = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    /**
+     * @return True when the ripples are traced
+     */
+    static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Begins a section, it must be ended with {@link #endSection()} on the same thread
+     *
+     * @param name The name of the section, a constant so nothing is allocated
+     */
+    static void beginSection(String name) {
+        if (isEnabled) {
+            beginTraceSection(name);
+        }
+    }
+
+    static void endSection() {
+        if (isEnabled) {
+            endTraceSection();
+        }
+    }
+
+    /**
+     * Changes the value of a counter, nothing is done before Android Q. Called from the main thread only.
+     *
+     * @param name The name of the counter, a constant so nothing is allocated
+     * @param value The value of the counter
+     */
+    static void setCounter(String name, long value) {
+        if (isEnabled && Build.VERSION.SDK_INT >= VERSION_CODE_Q) {
+            setTraceCounter(name, value);
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void beginTraceSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void endTraceSection() {
+        Trace.endSection();
+    }
+
+    private static void setTraceCounter(String name, long value) {
+        if (!isSetCounterResolved) {
+            isSetCounterResolved = true;
+
+            try {
+                setCounterMethod = Trace.class.getMethod("setCounter", String.class, long.class);
+            } catch (NoSuchMethodException e) {
+                setCounterMethod = null;
+            }
+        }
+
+        if (setCounterMethod == null) {
+            return;
+        }
+
+        // the value is boxed by the reflection, this is only done while tracing
+        setCounterArgs[0] = name;
+        setCounterArgs[1] = value;
+
+        try {
+            setCounterMethod.invoke(null, setCounterArgs);
+        } catch (Exception e) {
+            // the counter is dropped, the trace is still recorded
+            setCounterMethod = null;
+        }
+    }
+}
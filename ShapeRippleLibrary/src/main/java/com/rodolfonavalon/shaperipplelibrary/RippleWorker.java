@@ -0,0 +1,347 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+
+import com.rodolfonavalon.shaperipplecore.RippleEngine;
+import com.rodolfonavalon.shaperipplecore.data.RippleBatch;
+import com.rodolfonavalon.shaperipplecore.data.RippleSnapshotExchange;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Updates the ripples of a {@link ShapeRipple} on a worker thread, the main thread only requests the frames
+ * and draws the latest snapshot published through a lock-free {@link RippleSnapshotExchange}.
+ * <p>
+ * The worker owns its own {@link RippleEngine} and generators, the configuration of the view is copied to it
+ * every time it changes so the engine is never touched by two threads. The ripples are created again when it changes.
+ * <p>
+ * Every request is a pooled {@link Message} so nothing is allocated per frame or per emitted ripple.
+ */
+final class RippleWorker implements Handler.Callback {
+
+    private static final String WORKER_THREAD_NAME = "ShapeRippleWorker";
+
+    private static final String TRACE_SECTION_UPDATE = "RippleWorker#update";
+
+    private static final int MSG_FRAME = 1;
+
+    private static final int MSG_CONFIGURE = 2;
+
+    private static final int MSG_EMIT = 3;
+
+    private static final int MSG_CLEAR = 4;
+
+    private static final int MSG_RESET_FRAME_TIME = 5;
+
+    private final ShapeRipple shapeRipple;
+
+    private final RippleSnapshotExchange snapshotExchange = new RippleSnapshotExchange();
+
+    /**
+     * The engine of the worker thread
+     */
+    private final RippleEngine workerEngine = new RippleEngine();
+
+    /**
+     * The last configuration sent to the worker, only used by the main thread to detect changes
+     */
+    private final RippleEngine sentConfiguration = new RippleEngine();
+
+    /**
+     * The configuration that the worker copies on its next {@link #MSG_CONFIGURE}, it is reused for every change
+     * and guarded by its own lock since it is written by the main thread and read by the worker
+     */
+    private final RippleEngine pendingConfiguration = new RippleEngine();
+
+    /**
+     * Flag for when a configuration was sent to the worker, only used by the main thread
+     */
+    private boolean isConfigured;
+
+    /**
+     * The interpolated progress of the latest requested frame in the low bits and the number of repeats of the
+     * animation in the high bits, they are written at once so the worker never reads a progress without its repeat.
+     * Frames that are not updated yet are coalesced.
+     */
+    private volatile long pendingProgress;
+
+    /**
+     * The number of repeats of the animation, only used by the main thread
+     */
+    private int repeatCount;
+
+    /**
+     * The number of repeats of the last updated frame, only used by the worker thread
+     */
+    private int workerRepeatCount;
+
+    /**
+     * The frame time of the latest requested frame, only used with a {@link #pendingDurationNanos}
+     */
+    private volatile long pendingFrameTimeNanos;
+
+    /**
+     * The duration of a ripple when the ripples are advanced by the frame time, {@link RippleEngine#NO_VALUE} otherwise
+     */
+    private volatile long pendingDurationNanos;
+
+    /**
+     * The stride of the ripples that are published, see {@link RippleEngine#fillBatch(RippleBatch, int)}
+     */
+    private volatile int pendingRippleStride = 1;
+
+    /**
+     * Flag for when the {@link #invalidateRipples} is posted and not run yet, so it is posted once per drawn frame
+     */
+    private final AtomicBoolean isInvalidatePosted = new AtomicBoolean();
+
+    /**
+     * Invalidates the area of the latest snapshot on the main thread, since the bounds depend on the shape
+     */
+    private final Runnable invalidateRipples = new Runnable() {
+        @Override
+        public void run() {
+            isInvalidatePosted.set(false);
+            shapeRipple.invalidateRipples();
+        }
+    };
+
+    /**
+     * The snapshot acquired for the frame that is drawn next, only used by the main thread
+     */
+    private RippleBatch snapshot;
+
+    private HandlerThread workerThread;
+
+    private Handler workerHandler;
+
+    RippleWorker(ShapeRipple shapeRipple) {
+        this.shapeRipple = shapeRipple;
+    }
+
+    /**
+     * Starts the worker thread, called from the main thread
+     */
+    void start() {
+        if (workerThread != null) {
+            return;
+        }
+
+        // the repeats are counted again for the new thread
+        repeatCount = 0;
+        workerRepeatCount = 0;
+
+        workerThread = new HandlerThread(WORKER_THREAD_NAME);
+        workerThread.start();
+        workerHandler = new Handler(workerThread.getLooper(), this);
+
+        // the new thread starts from an empty engine
+        isConfigured = false;
+    }
+
+    /**
+     * Stops the worker thread and waits for it to finish, so it never overlaps the next thread on the
+     * {@link #workerEngine} and the {@link #snapshotExchange}. Called from the main thread.
+     */
+    void quit() {
+        if (workerThread == null) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            quitSafely(workerThread);
+        } else {
+            workerThread.quit();
+        }
+
+        try {
+            workerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        workerThread = null;
+        workerHandler = null;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void quitSafely(HandlerThread thread) {
+        thread.quitSafely();
+    }
+
+    /**
+     * Requests the worker to update the ripples to the progress, called from the main thread
+     *
+     * @param progress The interpolated progress of the animation from 0 to 1
+     * @param isRepeated True when the animation started a new cycle since the last requested frame
+     * @param frameTimeNanos The time of the frame
+     * @param durationNanos The duration of a ripple to advance by the frame time or {@link RippleEngine#NO_VALUE}
+     * @param rippleStride The stride of the ripples that are drawn, 1 draws every ripple
+     * @param rippleEngine The engine holding the configuration of the view
+     */
+    void requestFrame(float progress, boolean isRepeated, long frameTimeNanos, long durationNanos, int rippleStride, RippleEngine rippleEngine) {
+        if (workerHandler == null) {
+            return;
+        }
+
+        if (!isConfigured || !sentConfiguration.hasSameConfiguration(rippleEngine)) {
+            sentConfiguration.copyConfiguration(rippleEngine);
+            isConfigured = true;
+
+            // the worker owns the generators that it moves from now on
+            synchronized (pendingConfiguration) {
+                pendingConfiguration.copyConfiguration(rippleEngine);
+                pendingConfiguration.setPositionGenerator(rippleEngine.getPositionGenerator().copy());
+                pendingConfiguration.setColorGenerator(rippleEngine.getColorGenerator().copy());
+            }
+
+            // a configuration that is not copied yet is replaced by the latest one
+            if (!workerHandler.hasMessages(MSG_CONFIGURE)) {
+                workerHandler.sendEmptyMessage(MSG_CONFIGURE);
+            }
+        }
+
+        if (isRepeated) {
+            repeatCount++;
+        }
+
+        pendingProgress = ((long) repeatCount << 32) | (Float.floatToIntBits(progress) & 0xFFFFFFFFL);
+        pendingFrameTimeNanos = frameTimeNanos;
+        pendingDurationNanos = durationNanos;
+        pendingRippleStride = rippleStride;
+        if (!workerHandler.hasMessages(MSG_FRAME)) {
+            workerHandler.sendEmptyMessage(MSG_FRAME);
+        }
+    }
+
+    /**
+     * Requests the worker to emit a ripple, called from the main thread
+     */
+    void emit(float x, float y) {
+        if (workerHandler == null) {
+            return;
+        }
+
+        workerHandler.sendMessage(workerHandler.obtainMessage(MSG_EMIT, Float.floatToIntBits(x), Float.floatToIntBits(y)));
+    }
+
+    /**
+     * Requests the worker to remove every ripple, called from the main thread
+     */
+    void clear() {
+        if (workerHandler == null) {
+            return;
+        }
+
+        workerHandler.removeMessages(MSG_FRAME);
+        workerHandler.removeMessages(MSG_CONFIGURE);
+        workerHandler.sendEmptyMessage(MSG_CLEAR);
+
+        // the entries are created again by the next configuration
+        isConfigured = false;
+    }
+
+    /**
+     * Requests the worker to not simulate the time until the next frame, called from the main thread
+     */
+    void resetFrameTime() {
+        if (workerHandler == null) {
+            return;
+        }
+
+        workerHandler.sendEmptyMessage(MSG_RESET_FRAME_TIME);
+    }
+
+    /**
+     * Acquires the latest snapshot of the ripples for the frame that is drawn next, called from the main thread
+     * once per frame
+     *
+     * @return The acquired snapshot
+     */
+    RippleBatch acquire() {
+        snapshot = snapshotExchange.acquire();
+        return snapshot;
+    }
+
+    /**
+     * @return The snapshot of the last {@link #acquire()}, it is only acquired when there is none yet. Called from
+     * the main thread.
+     */
+    RippleBatch getSnapshot() {
+        return snapshot != null ? snapshot : acquire();
+    }
+
+    @Override
+    public boolean handleMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_FRAME:
+                RippleTrace.beginSection(TRACE_SECTION_UPDATE);
+                long durationNanos = pendingDurationNanos;
+                boolean isRendered;
+                if (durationNanos > RippleEngine.NO_VALUE) {
+                    isRendered = workerEngine.renderNanos(pendingFrameTimeNanos, durationNanos);
+                } else {
+                    long progress = pendingProgress;
+                    int frameRepeatCount = (int) (progress >>> 32);
+                    isRendered = workerEngine.render(Float.intBitsToFloat((int) progress), frameRepeatCount != workerRepeatCount);
+                    workerRepeatCount = frameRepeatCount;
+                }
+                RippleTrace.endSection();
+
+                if (isRendered) {
+                    publish();
+                }
+                return true;
+            case MSG_CONFIGURE:
+                synchronized (pendingConfiguration) {
+                    workerEngine.copyConfiguration(pendingConfiguration);
+                }
+                workerEngine.initializeEntries();
+                return true;
+            case MSG_EMIT:
+                workerEngine.emit(Float.intBitsToFloat(msg.arg1), Float.intBitsToFloat(msg.arg2));
+                return true;
+            case MSG_RESET_FRAME_TIME:
+                workerEngine.resetFrameTime();
+                return true;
+            case MSG_CLEAR:
+                workerEngine.clearEntries();
+                publish();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Publishes the ripples of the {@link #workerEngine} and requests the main thread to invalidate their area
+     */
+    private void publish() {
+        workerEngine.fillBatch(snapshotExchange.getBackBuffer(), pendingRippleStride);
+        snapshotExchange.publish();
+
+        if (isInvalidatePosted.compareAndSet(false, true)) {
+            shapeRipple.post(invalidateRipples);
+        }
+    }
+}
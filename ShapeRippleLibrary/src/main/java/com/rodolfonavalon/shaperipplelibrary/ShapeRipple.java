@@ -16,215 +16,412 @@
 
 package com.rodolfonavalon.shaperipplelibrary;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Configuration;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.os.Build;
 import android.util.AttributeSet;
+import android.util.Log;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 
-import com.rodolfonavalon.shaperipplelibrary.data.ShapeRippleEntry;
+import com.rodolfonavalon.shaperipplecore.RippleEngine;
+import com.rodolfonavalon.shaperipplecore.data.RippleBatch;
+import com.rodolfonavalon.shaperipplecore.data.RippleEmitterPool;
+import com.rodolfonavalon.shaperipplecore.generator.ColorGenerator;
+import com.rodolfonavalon.shaperipplecore.generator.ColorPool;
+import com.rodolfonavalon.shaperipplecore.generator.PositionGenerator;
+import com.rodolfonavalon.shaperipplecore.generator.PositionPool;
 import com.rodolfonavalon.shaperipplelibrary.model.BaseShape;
 import com.rodolfonavalon.shaperipplelibrary.model.Circle;
 import com.rodolfonavalon.shaperipplelibrary.util.ShapePulseUtil;
 
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import static com.rodolfonavalon.shaperipplelibrary.DebugLogger.logD;
 import static com.rodolfonavalon.shaperipplelibrary.DebugLogger.logE;
 
 public class ShapeRipple extends View {
 
+    /**
+     * The oldest emitted ripple is removed when too many ripples are emitted, see {@link #setRippleEmitterOverflowPolicy(int)}
+     */
+    public static final int EMITTER_OVERFLOW_DROP_OLDEST = RippleEmitterPool.OVERFLOW_DROP_OLDEST;
+
+    /**
+     * The new ripple is ignored when too many ripples are emitted, see {@link #setRippleEmitterOverflowPolicy(int)}
+     */
+    public static final int EMITTER_OVERFLOW_REJECT = RippleEmitterPool.OVERFLOW_REJECT;
+
     static final String TAG = ShapeRipple.class.getSimpleName();
 
-    private static final int NO_VALUE = 0;
+    private static final int NO_VALUE = RippleEngine.NO_VALUE;
+
+    private static final long NANOS_PER_MILLIS = 1000000L;
 
     /**
-     * Debug logging flag for the library
+     * The trace section of the ripple update
      */
-    static boolean DEBUG = false;
+    private static final String TRACE_SECTION_UPDATE = "ShapeRipple#update";
 
     /**
-     * Default color of the ripple
+     * The trace counter of the recycled ripples
      */
-    private static final int DEFAULT_RIPPLE_COLOR = Color.parseColor("#FFF44336");
+    private static final String TRACE_COUNTER_RECYCLED = "ShapeRipple recycled";
 
     /**
-     * Default color of the start ripple color transition
+     * The trace counter of the drawn ripples
      */
-    private static final int DEFAULT_RIPPLE_FROM_COLOR = Color.parseColor("#FFF44336");
+    private static final String TRACE_COUNTER_LIVE = "ShapeRipple live";
 
     /**
-     * Default color of the end ripple color transition
+     * The default number of drawn frames of each {@link RippleStats} report
      */
-    private static final int DEFAULT_RIPPLE_TO_COLOR = Color.parseColor("#00FFFFFF");
+    private static final int DEFAULT_STATS_REPORT_FRAMES = 60;
 
     /**
-     * The default duration of the ripples
+     * The default interpolator of the animation progress, a single instance so views using it can share a {@link RippleClock} timeline
      */
-    private static final int DEFAULT_RIPPLE_DURATION = 1500;
+    private static final Interpolator DEFAULT_RIPPLE_INTERPOLATOR = new LinearInterpolator();
 
     /**
-     * The default ripple interval factor see {@link #rippleIntervalFactor} for
-     * more details
+     * Starting color for the color transition of the ripple, only
+     * used when color transition is enabled
      */
-    private static final float DEFAULT_RIPPLE_INTERVAL_FACTOR = 1F;
+    private int rippleFromColor;
 
     /**
-     * Base ripple color, only used when {@link #enableColorTransition} flag is set to false
+     * Base ripple duration for the animation, by default the value is {@value RippleAttributes#DEFAULT_RIPPLE_DURATION}
      */
-    private int rippleColor;
+    private int rippleDuration;
 
     /**
-     * Starting color for the color transition of the ripple, only
-     * used when {@link #enableColorTransition} flag is set to true
+     * Base stroke width for each of the ripple
      */
-    private int rippleFromColor;
+    private int rippleStrokeWidth;
 
     /**
-     * End color for the color transition of the ripple, only
-     * used when {@link #enableColorTransition} flag is set to true
+     * Enables the stroke style of the ripples, it is false by default
+     *
+     * This means that if it is enabled it will use the {@link Paint#setStyle(Paint.Style)} as
+     * {@link Paint.Style#STROKE}, by default it will use the {@link Paint.Style#FILL}.
+     *
      */
-    private int rippleToColor;
+    private boolean enableStrokeStyle = false;
 
     /**
-     * Base ripple duration for the animation, by default the value is {@value DEFAULT_RIPPLE_DURATION}
+     * Enables drawing the ripples from pre-rendered sprites of the {@link #rippleShape}, it is false by default
+     * <p>
+     * Only used when {@link BaseShape#isSpriteSupported()} is true.
      */
-    private int rippleDuration;
+    private boolean enableSpriteRendering = false;
 
     /**
-     * Base stroke width for each of the ripple
+     * Enables the process wide {@link RippleClock} instead of the {@link #rippleFrameDriver}, it is false by default
      */
-    private int rippleStrokeWidth;
+    private boolean enableSharedClock = false;
 
     /**
-     * Ripple interval handles the actual timing of each spacing
-     * of ripples in the list, calculated in {@link #onMeasure(int, int)}
+     * Enables emitting a ripple where the view is touched, it is false by default
      */
-    private float rippleInterval;
+    private boolean enableTouchEmitter = false;
 
     /**
-     * Ripple maximum radius that will be used instead of the pre-calculated value, default value is
-     * the size of the layout.
+     * The editor of the changes that are not applied yet, null when the view is not being edited
      */
-    private float rippleMaximumRadius;
+    private Editor editor;
 
     /**
-     * Ripple interval factor is the spacing for each ripple
-     * the more the factor the more the spacing
+     * The changes of the ripples that are deferred while the {@link #editor} is open
      */
-    private float rippleIntervalFactor;
+    private final RippleEditTransaction editTransaction = new RippleEditTransaction();
 
     /**
-     * Ripple count that will be rendered in the layout, default value is calculated based on the
-     * layout_width / ripple_width
+     * Updates the ripples on a worker thread, null when it is not enabled
      */
-    private int rippleCount;
+    private RippleWorker rippleWorker;
 
     /**
-     * The width of the view in the layout which is calculated in {@link #onMeasure(int, int)}
+     * Advances the ripples by the elapsed frame time instead of the progress of the animation, it is false by default
      */
-    private int viewWidth;
+    private boolean enableTimeBasedSimulation = false;
 
     /**
-     * The height of the view in the layout which is calculated in {@link #onMeasure(int, int)}
+     * Steps the quality of the ripples down when the frames run over budget, null when it is not enabled
      */
-    private int viewHeight;
+    private RippleQualityGovernor qualityGovernor;
 
     /**
-     * The maximum radius of the ripple which is calculated in the {@link #onMeasure(int, int)}
+     * The statistics of the frames, null when there is no {@link #rippleStatsListener}
      */
-    private int maxRippleRadius;
+    private RippleStats rippleStats;
+
+    private OnRippleStatsListener rippleStatsListener;
 
     /**
-     * The last multiplier value of the animation after invalidation of this view
+     * The number of drawn frames of each report of the {@link #rippleStatsListener}
      */
-    private float lastMultiplierValue = 0f;
+    private int rippleStatsReportFrames;
 
     /**
-     * Enables the color transition for each ripple, it is true by default
+     * Only every n-th ripple is drawn, the {@link #qualityGovernor} draws half of the ripples without changing the ripple count
      */
-    private boolean enableColorTransition = true;
+    private int drawnRippleStride = 1;
 
     /**
-     * Enables the single ripple, it is false by default
+     * Flag for when the animation repeated since the last rendered frame, frames can be skipped before rendering
      */
-    private boolean enableSingleRipple = false;
+    private boolean isRepeatPending;
 
     /**
-     * Enables the random positioning of the ripple, it is false by default
+     * The sprites of the {@link #rippleShape}, used when {@link #enableSpriteRendering} is set to true
      */
-    private boolean enableRandomPosition = false;
+    private final ShapeSpriteCache shapeSpriteCache = new ShapeSpriteCache();
 
     /**
-     * Enable the random color of the ripple, it is false by default
+     * The visible ripples of the current frame given to {@link BaseShape#onDrawBatch(Canvas, int, float[], float[], float[], int[], int[], Paint)}
      */
-    private boolean enableRandomColor = false;
+    private final RippleBatch rippleBatch = new RippleBatch();
 
     /**
-     * Enables the stroke style of the ripples, it is false by default
-     *
-     * This means that if it is enabled it will use the {@link Paint#setStyle(Paint.Style)} as
-     * {@link Paint.Style#STROKE}, by default it will use the {@link Paint.Style#FILL}.
-     *
+     * The headless simulation of the ripples, this view only feeds the animation progress
+     * and draws its ripples
      */
-    private boolean enableStrokeStyle = false;
+    private RippleEngine rippleEngine;
 
     /**
-     * The list of {@link ShapeRippleEntry} which is rendered in {@link #render(Float)}
+     * The engine of the {@link RippleClock} timeline that is drawn instead of the {@link #rippleEngine},
+     * only used when {@link #enableSharedClock} is set to true
      */
-    private Deque<ShapeRippleEntry> shapeRippleEntries;
+    private RippleEngine sharedEngine;
 
     /**
-     * The list of developer predefined random colors which is used when {@link #enableRandomColor} is set to true.
-     * <p>
-     * If this is not defined by the developer it will have a default value from {@link ShapePulseUtil#generateRandomColours(Context)}
+     * Incremented when the duration or the interpolator changes, see {@link #getSharedClockVersion()}
      */
-    private List<Integer> rippleRandomColors;
+    private int timingVersion;
 
     /**
-     * The actual animator for the ripples, used in {@link #render(Float)}
+     * Flag for when the view was detached from the {@link RippleClock} by {@link #pause()}
      */
-    private ValueAnimator rippleValueAnimator;
+    private boolean isSharedClockPaused;
 
     /**
-     * The {@link Interpolator} of the {@link #rippleValueAnimator}, by default it is {@link LinearInterpolator}
+     * The driver of the ripple animation, it feeds the progress of each frame to {@link #render(float, boolean, long)}
      */
-    private Interpolator rippleInterpolator;
+    private RippleFrameDriver rippleFrameDriver;
 
     /**
-     * The random generator object for both color ({@link #enableRandomColor} is set to true) and position ({@link #enableRandomPosition} is set to true)
+     * The {@link Interpolator} of the animation progress, by default it is {@link LinearInterpolator}
      */
-    private Random random;
+    private Interpolator rippleInterpolator;
 
     /**
-     * The renderer of shape ripples which is drawn in the {@link BaseShape#onDraw(Canvas, int, int, float, int, int, Paint)}
+     * The renderer of shape ripples which is drawn in the {@link BaseShape#onDrawBatch(Canvas, int, float[], float[], float[], int[], int[], Paint)}
      */
     private BaseShape rippleShape;
 
+    /**
+     * The trace section of the draw of the {@link #rippleShape}, built when the shape is changed
+     */
+    private String traceSectionDraw;
+
     /**
      * The default paint for the ripple
      */
     protected Paint shapePaint;
 
+    /**
+     * The area of the ripples drawn in the current frame
+     */
+    private final Rect dirtyBounds = new Rect();
+
+    /**
+     * The area of the ripples drawn in the last frame
+     */
+    private final Rect lastDirtyBounds = new Rect();
+
+    /**
+     * Reusable rect for the bounds of a single ripple and the invalidated area
+     */
+    private final Rect shapeBounds = new Rect();
+
+    /**
+     * The overlap of a ring with the opaque ripple that covers it, hides the seam of the anti aliased edges
+     */
+    private static final float OCCLUSION_RING_OVERLAP = 1f;
+
+    /**
+     * The clip of the canvas in the current draw, ripples outside of it are not drawn
+     */
+    private final Rect clipBounds = new Rect();
+
     /**
      * This flag will handle that it was stopped by the user
      */
     private boolean isStopped;
 
     /**
-     * The life activity life cycle the shape ripple uses.
+     * Flag for when the animation was paused because the view is not visible to the user
      */
-    private LifeCycleManager lifeCycleManager;
+    private boolean isVisibilityPaused;
+
+    /**
+     * Reusable rect for the visible area of the view in the window
+     */
+    private final Rect visibleBounds = new Rect();
+
+    /**
+     * Resumes the animation paused by the visibility when the window is drawn again, this catches
+     * the changes without a callback such as scrolling the view back in and the alpha
+     */
+    private final ViewTreeObserver.OnPreDrawListener visibilityListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            resumeIfVisible();
+            return true;
+        }
+    };
+
+    /**
+     * Listener of the performance statistics of the ripples
+     */
+    public interface OnRippleStatsListener {
+
+        /**
+         * Called on the main thread every time the number of frames of the report is drawn
+         *
+         * @param shapeRipple The ripple view of the statistics
+         * @param stats The statistics since the last report, the object is reused for the next report
+         */
+        void onRippleStats(ShapeRipple shapeRipple, RippleStats stats);
+    }
+
+    /**
+     * Changes several options of the ripples at once, the ripples are created or re configured only once
+     * when the changes are applied instead of after each option. See {@link #edit()}
+     */
+    public final class Editor {
+
+        private Editor() {}
+
+        public Editor setRippleColor(int rippleColor) {
+            ShapeRipple.this.setRippleColor(rippleColor);
+            return this;
+        }
+
+        public Editor setRippleFromColor(int rippleFromColor) {
+            ShapeRipple.this.setRippleFromColor(rippleFromColor);
+            return this;
+        }
+
+        public Editor setRippleToColor(int rippleToColor) {
+            ShapeRipple.this.setRippleToColor(rippleToColor);
+            return this;
+        }
+
+        public Editor setRippleDuration(int millis) {
+            ShapeRipple.this.setRippleDuration(millis);
+            return this;
+        }
+
+        public Editor setRippleInterpolator(Interpolator rippleInterpolator) {
+            ShapeRipple.this.setRippleInterpolator(rippleInterpolator);
+            return this;
+        }
+
+        public Editor setRippleStrokeWidth(int rippleStrokeWidth) {
+            ShapeRipple.this.setRippleStrokeWidth(rippleStrokeWidth);
+            return this;
+        }
+
+        public Editor setRippleCount(int rippleCount) {
+            ShapeRipple.this.setRippleCount(rippleCount);
+            return this;
+        }
+
+        public Editor setRippleMaximumRadius(float rippleMaximumRadius) {
+            ShapeRipple.this.setRippleMaximumRadius(rippleMaximumRadius);
+            return this;
+        }
+
+        public Editor setRippleKeyframeResolution(int keyframeResolution) {
+            ShapeRipple.this.setRippleKeyframeResolution(keyframeResolution);
+            return this;
+        }
+
+        public Editor setEnableColorTransition(boolean enableColorTransition) {
+            ShapeRipple.this.setEnableColorTransition(enableColorTransition);
+            return this;
+        }
+
+        public Editor setEnableSingleRipple(boolean enableSingleRipple) {
+            ShapeRipple.this.setEnableSingleRipple(enableSingleRipple);
+            return this;
+        }
+
+        public Editor setEnableRandomPosition(boolean enableRandomPosition) {
+            ShapeRipple.this.setEnableRandomPosition(enableRandomPosition);
+            return this;
+        }
+
+        public Editor setEnableRandomColor(boolean enableRandomColor) {
+            ShapeRipple.this.setEnableRandomColor(enableRandomColor);
+            return this;
+        }
+
+        public Editor setEnableStrokeStyle(boolean enableStrokeStyle) {
+            ShapeRipple.this.setEnableStrokeStyle(enableStrokeStyle);
+            return this;
+        }
+
+        public Editor setRippleShape(BaseShape rippleShape) {
+            ShapeRipple.this.setRippleShape(rippleShape);
+            return this;
+        }
+
+        public Editor setRippleRandomColors(int[] rippleRandomColors) {
+            ShapeRipple.this.setRippleRandomColors(rippleRandomColors);
+            return this;
+        }
+
+        public Editor setRipplePositionGenerator(PositionGenerator positionGenerator) {
+            ShapeRipple.this.setRipplePositionGenerator(positionGenerator);
+            return this;
+        }
+
+        public Editor setRippleColorGenerator(ColorGenerator colorGenerator) {
+            ShapeRipple.this.setRippleColorGenerator(colorGenerator);
+            return this;
+        }
+
+        /**
+         * Applies the changes, the ripples are created again when a change needs it otherwise they are only
+         * re configured.
+         */
+        public void apply() {
+            if (editor != this) {
+                throw new IllegalStateException("The editor was already applied");
+            }
+
+            editor = null;
+
+            switch (editTransaction.close()) {
+                case RippleEditTransaction.APPLY_INITIALIZE:
+                    initializeEntries();
+                    break;
+                case RippleEditTransaction.APPLY_RECONFIGURE:
+                    reconfigureEntries();
+                    break;
+            }
+        }
+    }
 
     public ShapeRipple(Context context) {
         super(context);
@@ -249,49 +446,44 @@ public class ShapeRipple extends View {
         shapePaint.setDither(true);
         shapePaint.setStyle(Paint.Style.FILL);
 
-        this.shapeRippleEntries = new LinkedList<>();
-        this.random = new Random();
+        this.rippleEngine = new RippleEngine();
+        this.rippleFrameDriver = new RippleFrameDriver(this);
 
         rippleShape = new Circle();
         rippleShape.onSetup(context, shapePaint);
-
-        rippleColor = DEFAULT_RIPPLE_COLOR;
-        rippleFromColor = DEFAULT_RIPPLE_FROM_COLOR;
-        rippleToColor = DEFAULT_RIPPLE_TO_COLOR;
-        rippleStrokeWidth = getResources().getDimensionPixelSize(R.dimen.default_stroke_width);
-        rippleRandomColors = ShapePulseUtil.generateRandomColours(getContext());
-        rippleDuration = DEFAULT_RIPPLE_DURATION;
-        rippleIntervalFactor = DEFAULT_RIPPLE_INTERVAL_FACTOR;
-
-        rippleInterpolator = new LinearInterpolator();
-
-        if (attrs != null) {
-            TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.ConnectingRipple, 0, 0);
-
-            try {
-                rippleColor = ta.getColor(R.styleable.ConnectingRipple_ripple_color, DEFAULT_RIPPLE_COLOR);
-                rippleFromColor = ta.getColor(R.styleable.ConnectingRipple_ripple_from_color, DEFAULT_RIPPLE_FROM_COLOR);
-                rippleToColor = ta.getColor(R.styleable.ConnectingRipple_ripple_to_color, DEFAULT_RIPPLE_TO_COLOR);
-                setRippleDuration(ta.getInteger(R.styleable.ConnectingRipple_ripple_duration, DEFAULT_RIPPLE_DURATION));
-                enableColorTransition = ta.getBoolean(R.styleable.ConnectingRipple_enable_color_transition, true);
-                enableSingleRipple = ta.getBoolean(R.styleable.ConnectingRipple_enable_single_ripple, false);
-                enableRandomPosition = ta.getBoolean(R.styleable.ConnectingRipple_enable_random_position, false);
-                rippleMaximumRadius = ta.getDimensionPixelSize(R.styleable.ConnectingRipple_ripple_maximum_radius, NO_VALUE);
-                rippleCount = ta.getInteger(R.styleable.ConnectingRipple_ripple_count, NO_VALUE);
-                setEnableStrokeStyle(ta.getBoolean(R.styleable.ConnectingRipple_enable_stroke_style, false));
-                setEnableRandomColor(ta.getBoolean(R.styleable.ConnectingRipple_enable_random_color, false));
-                setRippleStrokeWidth(ta.getDimensionPixelSize(R.styleable.ConnectingRipple_ripple_stroke_width, getResources().getDimensionPixelSize(R.dimen.default_stroke_width)));
-            } finally {
-                ta.recycle();
-            }
-        }
+        traceSectionDraw = "ShapeRipple#draw " + rippleShape.getClass().getSimpleName();
+
+        RippleAttributes attributes = new RippleAttributes(context, attrs);
+
+        rippleEngine.setRippleRandomColors(ShapePulseUtil.generateRandomColourArray());
+        rippleEngine.setRippleColor(attributes.rippleColor);
+        rippleFromColor = attributes.rippleFromColor;
+        rippleEngine.setRippleToColor(attributes.rippleToColor);
+        rippleDuration = attributes.rippleDuration;
+        rippleInterpolator = DEFAULT_RIPPLE_INTERPOLATOR;
+
+        rippleEngine.setEnableColorTransition(attributes.enableColorTransition);
+        rippleEngine.setEnableSingleRipple(attributes.enableSingleRipple);
+        rippleEngine.setEnableRandomPosition(attributes.enableRandomPosition);
+        rippleEngine.setRippleMaximumRadius(attributes.rippleMaximumRadius);
+        rippleEngine.setRippleCount(attributes.rippleCount);
+        setEnableStrokeStyle(attributes.enableStrokeStyle);
+        setEnableRandomColor(attributes.enableRandomColor);
+        setRippleStrokeWidth(attributes.rippleStrokeWidth);
+        setEnableSpriteRendering(attributes.enableSpriteRendering);
+        enableSharedClock = attributes.enableSharedClock;
+        setRippleKeyframeResolution(attributes.rippleKeyframeResolution);
+        setEnableQualityGovernor(attributes.enableQualityGovernor);
+        setEnableTouchEmitter(attributes.enableTouchEmitter);
+        setRippleEmitterCapacity(attributes.rippleEmitterCapacity);
+        setEnableWorkerThread(attributes.enableWorkerThread);
+        setEnableTimeBasedSimulation(attributes.enableTimeBasedSimulation);
 
         start(rippleDuration);
 
         // Only attach the activity for ICE_CREAM_SANDWICH and up
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
-            lifeCycleManager = new LifeCycleManager(this);
-            lifeCycleManager.attachListener();
+            LifeCycleManager.register(this);
         }
     }
 
@@ -299,19 +491,174 @@ public class ShapeRipple extends View {
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        for (ShapeRippleEntry shapeRippleEntry : shapeRippleEntries) {
+        if (qualityGovernor == null && rippleStats == null && !RippleTrace.isEnabled()) {
+            drawRipples(canvas);
+            return;
+        }
+
+        RippleTrace.beginSection(traceSectionDraw);
+        long drawStartNanos = System.nanoTime();
+        int liveRipples = drawRipples(canvas);
+        long drawNanos = System.nanoTime() - drawStartNanos;
+        RippleTrace.endSection();
+
+        RippleTrace.setCounter(TRACE_COUNTER_LIVE, liveRipples);
+
+        if (qualityGovernor != null) {
+            qualityGovernor.onDrawn(drawStartNanos, drawNanos);
+        }
+
+        if (rippleStats != null) {
+            RippleEngine rippleEngine = getActiveEngine();
+            rippleStats.onDrawn(drawStartNanos, drawNanos, liveRipples,
+                    rippleEngine.getEntryCount() - liveRipples, rippleEngine.getRecycledCount());
 
-            if (shapeRippleEntry.isRender()) {
-                // Each ripple entry is a rendered as a shape
-                shapeRippleEntry.getBaseShape().onDraw(canvas, shapeRippleEntry.getX(),
-                        shapeRippleEntry.getY(),
-                        shapeRippleEntry.getRadiusSize(),
-                        shapeRippleEntry.getChangingColorValue(),
-                        shapeRippleEntry.getRippleIndex(),
-                        shapePaint);
+            if (rippleStats.getFrameCount() >= rippleStatsReportFrames) {
+                rippleStatsListener.onRippleStats(this, rippleStats);
+                rippleStats.reset();
+            }
+        }
+    }
+
+    /**
+     * Draws the visible ripples of the {@link #getActiveEngine()}
+     *
+     * @return The number of drawn ripples
+     */
+    private int drawRipples(Canvas canvas) {
+        boolean drawSprites = enableSpriteRendering
+                || (qualityGovernor != null && qualityGovernor.getQualityLevel() >= RippleQualityGovernor.QUALITY_SPRITES);
+
+        // nothing is drawn when the whole canvas is clipped out
+        if (!canvas.getClipBounds(clipBounds)) {
+            return 0;
+        }
+
+        boolean isOccluded = !enableStrokeStyle && rippleShape.isOcclusionSupported();
+
+        // the snapshot of the worker is acquired once per frame when its area is invalidated
+        if (isWorkerRendering()) {
+            rippleBatch.copyFrom(rippleWorker.getSnapshot());
+        } else {
+            getActiveEngine().fillBatch(rippleBatch, drawnRippleStride);
+        }
+        cullBatch(isOccluded);
+
+        // the shape draws every visible ripple at once
+        if (!drawSprites || !rippleShape.isSpriteSupported()) {
+            if (isOccluded) {
+                drawOccludedBatch(canvas);
+            } else {
+                rippleShape.onDrawBatch(canvas, rippleBatch.size(), rippleBatch.getX(), rippleBatch.getY(),
+                        rippleBatch.getRadiusSize(), rippleBatch.getColor(), rippleBatch.getRippleIndex(), shapePaint);
             }
+            return rippleBatch.size();
         }
 
+        float[] x = rippleBatch.getX();
+        float[] y = rippleBatch.getY();
+        float[] radiusSize = rippleBatch.getRadiusSize();
+        int[] color = rippleBatch.getColor();
+        int[] rippleIndex = rippleBatch.getRippleIndex();
+        int maxRippleRadius = getActiveEngine().getMaxRippleRadius();
+
+        int size = rippleBatch.size();
+        for (int i = 0; i < size; i++) {
+
+            // Ripples that are bigger than the sprites are drawn as shape
+            if (shapeSpriteCache.draw(canvas, rippleShape, (int) x[i], (int) y[i], radiusSize[i], color[i], shapePaint, maxRippleRadius)) {
+                continue;
+            }
+
+            // Each ripple entry is a rendered as a shape
+            rippleShape.onDraw(canvas, (int) x[i], (int) y[i], radiusSize[i], color[i], rippleIndex[i], shapePaint);
+        }
+
+        return size;
+    }
+
+    /**
+     * Draws the {@link #rippleBatch} from the outer most ripple, a ripple that is followed by a smaller opaque
+     * ripple with the same center is drawn as a ring since its inner area is drawn over anyway.
+     * <p>
+     * Every ripple between them is drawn over by the opaque ripple as well so the result is the same.
+     */
+    private void drawOccludedBatch(Canvas canvas) {
+        float[] x = rippleBatch.getX();
+        float[] y = rippleBatch.getY();
+        float[] radiusSize = rippleBatch.getRadiusSize();
+        int[] color = rippleBatch.getColor();
+        int[] rippleIndex = rippleBatch.getRippleIndex();
+
+        int size = rippleBatch.size();
+        for (int i = 0; i < size; i++) {
+            int next = i + 1;
+            float innerRadiusSize = next < size
+                    && Color.alpha(color[next]) == 0xFF
+                    && (int) x[next] == (int) x[i]
+                    && (int) y[next] == (int) y[i]
+                    ? radiusSize[next] - OCCLUSION_RING_OVERLAP : 0;
+
+            if (innerRadiusSize <= 0) {
+                rippleShape.onDraw(canvas, (int) x[i], (int) y[i], radiusSize[i], color[i], rippleIndex[i], shapePaint);
+            } else if (innerRadiusSize < radiusSize[i]) {
+                rippleShape.onDrawRing(canvas, (int) x[i], (int) y[i], radiusSize[i], innerRadiusSize, color[i], rippleIndex[i], shapePaint);
+            }
+        }
+    }
+
+    /**
+     * Removes the ripples of the {@link #rippleBatch} that are outside of the {@link #clipBounds}
+     *
+     * @param isOccluded True when the fully transparent ripples can be removed as well
+     */
+    private void cullBatch(boolean isOccluded) {
+        float[] x = rippleBatch.getX();
+        float[] y = rippleBatch.getY();
+        float[] radiusSize = rippleBatch.getRadiusSize();
+        int[] color = rippleBatch.getColor();
+
+        int size = rippleBatch.size();
+        int visibleSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (isOccluded && Color.alpha(color[i]) == 0) {
+                continue;
+            }
+
+            if (!isInClipBounds((int) x[i], (int) y[i], radiusSize[i])) {
+                continue;
+            }
+
+            if (visibleSize != i) {
+                rippleBatch.move(i, visibleSize);
+            }
+            visibleSize++;
+        }
+
+        rippleBatch.truncate(visibleSize);
+    }
+
+    /**
+     * @return True when the {@link BaseShape#getBounds(int, int, float, Paint, Rect)} of the ripple intersects the {@link #clipBounds}
+     */
+    private boolean isInClipBounds(int x, int y, float radiusSize) {
+        rippleShape.getBounds(x, y, radiusSize, shapePaint, shapeBounds);
+        return Rect.intersects(clipBounds, shapeBounds);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!enableTouchEmitter) {
+            return super.onTouchEvent(event);
+        }
+
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_POINTER_DOWN) {
+            int pointerIndex = event.getActionIndex();
+            emitAt(event.getX(pointerIndex), event.getY(pointerIndex));
+        }
+
+        return true;
     }
 
     @Override
@@ -319,20 +666,54 @@ public class ShapeRipple extends View {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
         // Get the measure base of the measure spec
-        viewWidth = MeasureSpec.getSize(widthMeasureSpec);
-        viewHeight = MeasureSpec.getSize(heightMeasureSpec);
+        int viewWidth = MeasureSpec.getSize(widthMeasureSpec);
+        int viewHeight = MeasureSpec.getSize(heightMeasureSpec);
+        rippleEngine.setViewSize(viewWidth, viewHeight);
 
-        initializeEntries(rippleShape);
+        // the layout is not part of an edit, the view is never left without ripples
+        createEntries();
 
         rippleShape.setWidth(viewWidth);
         rippleShape.setHeight(viewHeight);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        getViewTreeObserver().addOnPreDrawListener(visibilityListener);
+
+        if (rippleWorker != null) {
+            rippleWorker.start();
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
+        getViewTreeObserver().removeOnPreDrawListener(visibilityListener);
+
         stop();
+        shapeSpriteCache.release();
+
+        if (rippleWorker != null) {
+            rippleWorker.quit();
+        }
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+
+        resumeIfVisible();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+
+        resumeIfVisible();
     }
 
     @Override
@@ -343,227 +724,326 @@ public class ShapeRipple extends View {
     }
 
     /**
-     * This method will initialize the list of {@link ShapeRippleEntry} with
-     * initial position, color, index, and multiplier value.)
-     *
-     * @param shapeRipple the renderer of shape ripples
+     * This method will initialize the entries of the {@link #rippleEngine} with
+     * initial position, color, index, and multiplier value.
      */
-    private void initializeEntries(BaseShape shapeRipple) {
-        // Sets the stroke width of the ripple
-        shapePaint.setStrokeWidth(rippleStrokeWidth);
-
-        if (viewWidth == 0 && viewHeight == 0) {
+    private void initializeEntries() {
+        // the ripples are created once the changes are applied
+        if (editTransaction.deferInitialize()) {
             return;
         }
 
-        // we remove all the shape ripples entries
-        shapeRippleEntries.clear();
-
-        // the ripple radius based on the x or y
-        maxRippleRadius = rippleMaximumRadius != NO_VALUE ? (int)rippleMaximumRadius :
-                (Math.min(viewWidth, viewHeight) / 2 - (rippleStrokeWidth / 2));
-
-        // Calculate the max number of ripples
-        rippleCount = rippleCount > NO_VALUE ? rippleCount : maxRippleRadius / rippleStrokeWidth;
-
-        // Calculate the interval of ripples
-        rippleInterval = DEFAULT_RIPPLE_INTERVAL_FACTOR / rippleCount;
+        createEntries();
+    }
 
-        for (int i = 0; i < rippleCount; i++) {
-            ShapeRippleEntry shapeRippleEntry = new ShapeRippleEntry(shapeRipple);
-            shapeRippleEntry.setX(enableRandomPosition ? random.nextInt(viewWidth) : viewWidth / 2);
-            shapeRippleEntry.setY(enableRandomPosition ? random.nextInt(viewHeight) : viewHeight / 2);
-            shapeRippleEntry.setMultiplierValue(-(rippleInterval * (float) i));
-            shapeRippleEntry.setRippleIndex(i);
+    /**
+     * Creates the entries right away even when the view is being edited, see {@link #initializeEntries()}
+     */
+    private void createEntries() {
+        // Sets the stroke width of the ripple
+        shapePaint.setStrokeWidth(rippleStrokeWidth);
 
-            if (enableRandomColor) {
-                shapeRippleEntry.setOriginalColorValue(rippleRandomColors.get(random.nextInt(rippleRandomColors.size())));
-            } else {
-                shapeRippleEntry.setOriginalColorValue(rippleColor);
-            }
+        rippleEngine.initializeEntries();
+        rippleShape.setMaxRadius(rippleEngine.getMaxRippleRadius());
 
-            shapeRippleEntries.add(shapeRippleEntry);
+        // the maximum radius might have changed
+        shapeSpriteCache.invalidate();
 
-            // we only render 1 ripple when it is enabled
-            if (enableSingleRipple) {
-                break;
-            }
-        }
+        editTransaction.onInitialized();
     }
 
     /**
-     * Refreshes the list of ticket entries after certain options are changed such as the {@link #rippleColor},
-     * {@link #rippleShape}, {@link #enableRandomPosition}, etc.
+     * Refreshes the list of ripple entries after certain options are changed such as the ripple color,
+     * {@link #rippleShape}, random color, etc.
      * <p>
-     * This will only execute after the {@link #initializeEntries(BaseShape)}, this is safe to call before it.
+     * This will only execute after the {@link #initializeEntries()}, this is safe to call before it.
      */
     private void reconfigureEntries() {
-
-        // we do not re configure when dimension is not calculated
-        // or if the list is empty
-        if (viewWidth == 0 && viewHeight == 0 && (shapeRippleEntries == null || shapeRippleEntries.size() == 0)) {
-            logE("The view dimensions was not calculated!!");
+        // the ripples are re configured once the changes are applied
+        if (editTransaction.deferReconfigure()) {
             return;
         }
 
         // sets the stroke width of the ripple
         shapePaint.setStrokeWidth(rippleStrokeWidth);
 
-        for (ShapeRippleEntry shapeRippleEntry : shapeRippleEntries) {
-            if (enableRandomColor) {
-                shapeRippleEntry.setOriginalColorValue(rippleRandomColors.get(random.nextInt(rippleRandomColors.size())));
-            } else {
-                shapeRippleEntry.setOriginalColorValue(rippleColor);
-            }
-
-            shapeRippleEntry.setBaseShape(rippleShape);
+        // we do not re configure when dimension is not calculated
+        // or if the list is empty
+        if (!rippleEngine.reconfigureEntries()) {
+            logE("The view dimensions was not calculated!!");
         }
     }
 
     /**
-     * Start the {@link #rippleValueAnimator} with specified duration for each ripple.
+     * Start the {@link #rippleFrameDriver} with specified duration for each ripple, or attach
+     * to the {@link RippleClock} when {@link #enableSharedClock} is set to true.
      *
      * @param millis the duration in milliseconds
      */
     void start(int millis) {
+        rippleFrameDriver.setDuration(millis);
 
-        // Do a ripple value renderer
-        rippleValueAnimator = ValueAnimator.ofFloat(0f, 1f);
-        rippleValueAnimator.setDuration(millis);
-        rippleValueAnimator.setRepeatMode(ValueAnimator.RESTART);
-        rippleValueAnimator.setRepeatCount(ValueAnimator.INFINITE);
-        rippleValueAnimator.setInterpolator(rippleInterpolator);
-        rippleValueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                render((Float) animation.getAnimatedValue());
-            }
-        });
-
-        rippleValueAnimator.start();
+        if (enableSharedClock) {
+            RippleClock.getInstance().attach(this);
+        } else {
+            rippleFrameDriver.start();
+        }
     }
 
     /**
-     * This is the main renderer for the list of ripple, we always check that the first ripple is already
-     * finished.
-     * <p>
-     * When the ripple is finished it is {@link ShapeRippleEntry#reset()} and move to the end of the list to be reused all over again
-     * to prevent creating a new instance of it.
+     * This is the main renderer for the ripples, the {@link #rippleEngine} advances the
+     * ripples by the interpolated progress of the animation then this view is invalidated to draw them.
      * <p>
-     * Each ripple will be configured to be either rendered or not rendered to the view to prevent extra rendering process.
+     * When {@link #enableTimeBasedSimulation} is set to true the ripples are advanced by the frame time instead.
      *
-     * @param multiplierValue the current multiplier value of the {@link #rippleValueAnimator}
+     * @param fraction the current progress of the {@link #rippleFrameDriver} from 0 to 1
+     * @param isRepeated True when the animation started a new cycle since the last frame
+     * @param frameTimeNanos the time of the frame in nanoseconds
      */
-    private void render(Float multiplierValue) {
+    void render(float fraction, boolean isRepeated, long frameTimeNanos) {
+
+        // a skipped frame does not lose the repeat of the animation
+        isRepeatPending |= isRepeated;
+
+        // nothing is updated while nobody can see the ripples
+        if (pauseIfNotVisible()) {
+            return;
+        }
+
+        // the quality governor can skip frames
+        if (qualityGovernor != null && !qualityGovernor.onFrame()) {
+            return;
+        }
+
+        // the worker updates the ripples and invalidates the view when they are ready
+        if (isWorkerRendering()) {
+            rippleWorker.requestFrame(rippleInterpolator.getInterpolation(fraction), isRepeatPending, frameTimeNanos,
+                    enableTimeBasedSimulation ? rippleDuration * NANOS_PER_MILLIS : NO_VALUE, drawnRippleStride, rippleEngine);
+            isRepeatPending = false;
+            return;
+        }
+
+        boolean isMeasured = qualityGovernor != null || rippleStats != null;
+        long renderStartNanos = isMeasured ? System.nanoTime() : 0;
+
+        RippleTrace.beginSection(TRACE_SECTION_UPDATE);
+        boolean isRendered = enableTimeBasedSimulation
+                ? rippleEngine.renderNanos(frameTimeNanos, rippleDuration * NANOS_PER_MILLIS)
+                : rippleEngine.render(rippleInterpolator.getInterpolation(fraction), isRepeatPending);
+        isRepeatPending = false;
+        RippleTrace.endSection();
 
         // Do not render when entries are empty
-        if (shapeRippleEntries.size() == 0) {
+        if (!isRendered) {
             logD("There are no ripple entries that was created!!");
             return;
         }
 
-        ShapeRippleEntry firstEntry = shapeRippleEntries.peekFirst();
+        RippleTrace.setCounter(TRACE_COUNTER_RECYCLED, rippleEngine.getRecycledCount());
+
+        if (isMeasured) {
+            long renderNanos = System.nanoTime() - renderStartNanos;
 
-        // Calculate the multiplier value of the first entry
-        float firstEntryMultiplierValue = firstEntry.getMultiplierValue() + Math.max(multiplierValue - lastMultiplierValue, 0);
+            if (qualityGovernor != null) {
+                qualityGovernor.onRendered(renderNanos);
+            }
+
+            if (rippleStats != null) {
+                rippleStats.onRendered(renderNanos);
+            }
+        }
 
-        // Check if the first entry is done the ripple (happens when the ripple reaches to end)
-        if (firstEntryMultiplierValue >= 1.0f) {
+        // we draw the shapes
+        invalidateRipples();
+    }
+
+    /**
+     * Called by the {@link RippleClock} after the shared ripples of this view are updated
+     */
+    void onSharedFrame() {
+        if (pauseIfNotVisible()) {
+            return;
+        }
+
+        if (qualityGovernor != null && !qualityGovernor.onFrame()) {
+            return;
+        }
+
+        invalidateRipples();
+    }
+
+    /**
+     * The view is not visible when it or one of its parents is not {@link #VISIBLE}, the window is hidden,
+     * the view is fully transparent or it has no visible area in the window such as scrolled out of a list.
+     *
+     * @return True when the ripples can be seen by the user
+     */
+    private boolean isVisibleToUser() {
+        return isShown()
+                && getWindowVisibility() == VISIBLE
+                && getAlpha() > 0
+                && getGlobalVisibleRect(visibleBounds);
+    }
+
+    /**
+     * Pauses the running animation when the view is not visible, it is resumed with the same
+     * phase by {@link #resumeIfVisible()}
+     *
+     * @return True when the animation is paused
+     */
+    private boolean pauseIfNotVisible() {
+        if (isVisibleToUser()) {
+            return false;
+        }
+
+        logD("Paused the ripple that is not visible");
+        pause();
+        isVisibilityPaused = true;
+        return true;
+    }
+
+    /**
+     * Resumes the animation that was paused by {@link #pauseIfNotVisible()} when the view is visible again
+     */
+    private void resumeIfVisible() {
+        if (!isVisibilityPaused || !isVisibleToUser()) {
+            return;
+        }
+
+        isVisibilityPaused = false;
+        restartRipple();
+    }
+
+    /**
+     * Changes the drawing of the ripples to the quality level of the {@link #qualityGovernor}
+     *
+     * @param qualityLevel The quality level, see {@link RippleQualityGovernor#QUALITY_FULL}
+     */
+    void applyQualityLevel(int qualityLevel) {
+        logD("Ripple quality level changed to ", qualityLevel);
 
-            // Remove and relocate the first entry to the last entry
-            ShapeRippleEntry removedEntry = shapeRippleEntries.pop();
-            removedEntry.reset();
-            removedEntry.setOriginalColorValue(enableRandomColor ? rippleRandomColors.get(random.nextInt(rippleRandomColors.size())) : rippleColor);
-            shapeRippleEntries.addLast(removedEntry);
+        shapePaint.setAntiAlias(qualityLevel < RippleQualityGovernor.QUALITY_NO_ANTIALIAS);
+        shapeSpriteCache.invalidate();
 
-            // Get the new first entry of the list
-            firstEntry = shapeRippleEntries.peekFirst();
+        // the skipped ripples keep running so nothing is created again
+        drawnRippleStride = qualityLevel >= RippleQualityGovernor.QUALITY_HALF_RIPPLES ? 2 : 1;
+    }
 
-            // Calculate the new multiplier value of the first entry of the list
-            firstEntryMultiplierValue = firstEntry.getMultiplierValue() + Math.max(multiplierValue - lastMultiplierValue, 0);
+    /**
+     * Invalidates only the area where the ripples are drawn in the current frame and the last frame.
+     */
+    void invalidateRipples() {
+        dirtyBounds.setEmpty();
 
-            firstEntry.setX(enableRandomPosition ? random.nextInt(viewWidth) : viewWidth / 2);
-            firstEntry.setY(enableRandomPosition ? random.nextInt(viewHeight) : viewHeight / 2);
+        if (isWorkerRendering()) {
+            // the latest snapshot of the worker is kept for the next draw
+            RippleBatch snapshot = rippleWorker.acquire();
+            float[] x = snapshot.getX();
+            float[] y = snapshot.getY();
+            float[] radiusSize = snapshot.getRadiusSize();
 
-            if (enableSingleRipple) {
-                firstEntryMultiplierValue = 0;
+            int size = snapshot.size();
+            for (int i = 0; i < size; i++) {
+                rippleShape.getBounds((int) x[i], (int) y[i], radiusSize[i], shapePaint, shapeBounds);
+                dirtyBounds.union(shapeBounds);
+            }
+        } else {
+            RippleEngine rippleEngine = getActiveEngine();
+
+            int entryCount = rippleEngine.getEntryCount();
+            for (int index = 0; index < entryCount; index++) {
+                if (rippleEngine.isRender(index)) {
+                    rippleShape.getBounds((int) rippleEngine.getX(index), (int) rippleEngine.getY(index),
+                            rippleEngine.getRadiusSize(index), shapePaint, shapeBounds);
+                    dirtyBounds.union(shapeBounds);
+                }
             }
         }
 
-        int index = 0;
-        for (ShapeRippleEntry shapeRippleEntry : shapeRippleEntries) {
+        // the last area needs to be cleared as well
+        shapeBounds.set(dirtyBounds);
+        shapeBounds.union(lastDirtyBounds);
+        lastDirtyBounds.set(dirtyBounds);
 
-            // set the updated index
-            shapeRippleEntry.setRippleIndex(index);
+        // nothing was drawn and nothing will be drawn
+        if (shapeBounds.isEmpty()) {
+            return;
+        }
 
-              // calculate the shape multiplier by index
-            float currentEntryMultiplier = firstEntryMultiplierValue - rippleInterval * index;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postInvalidateOnAnimation(shapeBounds.left, shapeBounds.top, shapeBounds.right, shapeBounds.bottom);
+        } else {
+            invalidate(shapeBounds);
+        }
+    }
 
-            // Check if we render the current ripple in the list
-            // We render when the multiplier value is >= 0
-            if (currentEntryMultiplier >= 0) {
-                shapeRippleEntry.setRender(true);
-            } else {
-                // We continue to the next item
-                // since we know that we do not
-                // need the calculations below
-                shapeRippleEntry.setRender(false);
-                continue;
-            }
+    /**
+     * Stop the {@link #rippleFrameDriver} and clears the entries of the {@link #rippleEngine}
+     */
+    void stop() {
 
-            // We already calculated the multiplier value of the first entry of the list
-            if (index == 0) {
-                shapeRippleEntry.setMultiplierValue(firstEntryMultiplierValue);
-            } else {
-                shapeRippleEntry.setMultiplierValue(currentEntryMultiplier);
-            }
+        rippleFrameDriver.stop();
 
-            // calculate the color if we enabled the color transition
-            shapeRippleEntry.setChangingColorValue(enableColorTransition
-                    ? ShapePulseUtil.evaluateTransitionColor(currentEntryMultiplier, shapeRippleEntry.getOriginalColorValue(), rippleToColor)
-                    : rippleColor);
+        RippleClock.getInstance().detach(this);
+        sharedEngine = null;
+        isSharedClockPaused = false;
+        isVisibilityPaused = false;
 
-            // calculate the current ripple size
-            shapeRippleEntry.setRadiusSize(maxRippleRadius * currentEntryMultiplier);
+        if (qualityGovernor != null) {
+            qualityGovernor.reset();
+        }
 
-            index += 1;
+        if (rippleStats != null) {
+            rippleStats.resetFrameTime();
         }
 
-        // save the last multiplier value
-        lastMultiplierValue = multiplierValue;
+        if (rippleWorker != null) {
+            rippleWorker.clear();
+        }
 
-        // we draw the shapes
-        invalidate();
+        if (rippleEngine != null) {
+            rippleEngine.clearEntries();
+            lastDirtyBounds.setEmpty();
+            invalidate();
+        }
     }
 
     /**
-     * Stop the {@link #rippleValueAnimator} and clears the {@link #shapeRippleEntries}
+     * Pause the {@link #rippleFrameDriver}, the ripples are kept where they are. When the {@link RippleClock} is
+     * used the view is detached from it and joins the current progress of its timeline when resumed.
      */
-    void stop() {
+    void pause() {
+        rippleFrameDriver.pause();
 
-        if (rippleValueAnimator != null) {
-            rippleValueAnimator.cancel();
-            rippleValueAnimator.end();
-            rippleValueAnimator.removeAllUpdateListeners();
-            rippleValueAnimator.removeAllListeners();
-            rippleValueAnimator = null;
+        // the paused time is not simulated
+        rippleEngine.resetFrameTime();
+        if (rippleWorker != null) {
+            rippleWorker.resetFrameTime();
         }
 
-        if (shapeRippleEntries != null) {
-            shapeRippleEntries.clear();
-            invalidate();
+        if (qualityGovernor != null) {
+            qualityGovernor.reset();
+        }
+
+        if (rippleStats != null) {
+            rippleStats.resetFrameTime();
+        }
+
+        if (sharedEngine != null) {
+            RippleClock.getInstance().detach(this);
+            isSharedClockPaused = true;
         }
     }
 
     /**
-     * Starts the ripple by stopping the current {@link #rippleValueAnimator} using the {@link #stop()}
-     * then initializing ticket entries using the {@link #initializeEntries(BaseShape)}
-     * and lastly starting the {@link #rippleValueAnimator} using {@link #start(int)}
+     * Starts the ripple by stopping the current {@link #rippleFrameDriver} using the {@link #stop()}
+     * then initializing ticket entries using the {@link #createEntries()}
+     * and lastly starting the {@link #rippleFrameDriver} using {@link #start(int)}
      */
     public void startRipple() {
         //stop the animation from previous before starting it again
         stop();
-        initializeEntries(rippleShape);
+        createEntries();
         start(rippleDuration);
 
         this.isStopped = false;
@@ -588,35 +1068,88 @@ public class ShapeRipple extends View {
             return;
         }
 
+        // the animation was resumed by the visibility or the life cycle
+        if (rippleFrameDriver.isRunning() || (sharedEngine != null && !isSharedClockPaused)) {
+            return;
+        }
+
+        if (isSharedClockPaused) {
+            isSharedClockPaused = false;
+            RippleClock.getInstance().attach(this);
+            return;
+        }
+
+        // continue the paused animation when the ripples are still there
+        if (rippleFrameDriver.isPaused() && rippleEngine.getEntryCount() > 0) {
+            rippleFrameDriver.resume();
+            return;
+        }
+
         startRipple();
     }
 
+    /**
+     * @return True when the ripples are updated by the {@link #rippleWorker}, the shared clock takes precedence
+     */
+    private boolean isWorkerRendering() {
+        return rippleWorker != null && sharedEngine == null;
+    }
+
+    /**
+     * @return The engine that is drawn, the {@link RippleClock} timeline engine or the own {@link #rippleEngine}
+     */
+    private RippleEngine getActiveEngine() {
+        return sharedEngine != null ? sharedEngine : rippleEngine;
+    }
+
+    /**
+     * @return The engine that holds the configuration of this view
+     */
+    RippleEngine getRippleEngine() {
+        return rippleEngine;
+    }
+
+    /**
+     * Change the engine of the {@link RippleClock} timeline where this view is attached
+     */
+    void setSharedEngine(RippleEngine sharedEngine) {
+        this.sharedEngine = sharedEngine;
+    }
+
+    /**
+     * @return The version of everything that affects the {@link RippleClock} timeline of this view, it
+     * changes every time the configuration, the duration or the interpolator is changed
+     */
+    int getSharedClockVersion() {
+        return rippleEngine.getConfigurationVersion() + timingVersion;
+    }
+
     /**
      * @return The max ripple radius
      */
     public float getRippleMaximumRadius() {
-        return maxRippleRadius;
+        return rippleEngine.getMaxRippleRadius();
     }
 
     /**
      * @return True if color transition is enabled
      */
     public boolean isEnableColorTransition() {
-        return enableColorTransition;
+        return rippleEngine.isEnableColorTransition();
     }
 
     /**
      * @return True of single ripple is enabled
      */
     public boolean isEnableSingleRipple() {
-        return enableSingleRipple;
+        return rippleEngine.isEnableSingleRipple();
     }
 
     /**
      * @return True of random ripple position is enabled
      */
     public boolean isEnableRandomPosition() {
-        return enableRandomPosition;
+        return rippleEngine.isEnableRandomPosition();
     }
 
     /**
@@ -630,7 +1163,7 @@ public class ShapeRipple extends View {
      * @return The base ripple color
      */
     public int getRippleColor() {
-        return rippleColor;
+        return rippleEngine.getRippleColor();
     }
 
     /**
@@ -644,7 +1177,7 @@ public class ShapeRipple extends View {
      * @return The end ripple color of the color transition
      */
     public int getRippleToColor() {
-        return rippleToColor;
+        return rippleEngine.getRippleToColor();
     }
 
     /**
@@ -658,10 +1191,17 @@ public class ShapeRipple extends View {
      * @return The number of ripple being rendered
      */
     public int getRippleCount() {
-        return rippleCount;
+        return rippleEngine.getRippleCount();
     }
     /**
-     * @return The interpolator of the value animator
+     * @return The number of keyframes of each ripple interval, 0 when the keyframes are disabled
+     */
+    public int getRippleKeyframeResolution() {
+        return rippleEngine.getKeyframeResolution();
+    }
+
+    /**
+     * @return The interpolator of the animation progress
      */
     public Interpolator getRippleInterpolator() {
         return rippleInterpolator;
@@ -671,7 +1211,7 @@ public class ShapeRipple extends View {
      * @return True if random color for each ripple is enabled
      */
     public boolean isEnableRandomColor() {
-        return enableRandomColor;
+        return rippleEngine.isEnableRandomColor();
     }
 
     /**
@@ -681,6 +1221,62 @@ public class ShapeRipple extends View {
         return enableStrokeStyle;
     }
 
+    /**
+     * @return True if the ripples are advanced by the process wide shared clock
+     */
+    public boolean isEnableSharedClock() {
+        return enableSharedClock;
+    }
+
+    /**
+     * @return True if the quality of the ripples is adapted to the measured frame cost
+     */
+    public boolean isEnableQualityGovernor() {
+        return qualityGovernor != null;
+    }
+
+    /**
+     * @return True if the ripples are advanced by the elapsed frame time
+     */
+    public boolean isEnableTimeBasedSimulation() {
+        return enableTimeBasedSimulation;
+    }
+
+    /**
+     * @return True if the ripples are updated on a worker thread
+     */
+    public boolean isEnableWorkerThread() {
+        return rippleWorker != null;
+    }
+
+    /**
+     * @return True if a ripple is emitted where the view is touched
+     */
+    public boolean isEnableTouchEmitter() {
+        return enableTouchEmitter;
+    }
+
+    /**
+     * @return The maximum number of emitted ripples that are alive at the same time
+     */
+    public int getRippleEmitterCapacity() {
+        return rippleEngine.getEmitterCapacity();
+    }
+
+    /**
+     * @return The policy when too many ripples are emitted, {@link #EMITTER_OVERFLOW_DROP_OLDEST} or {@link #EMITTER_OVERFLOW_REJECT}
+     */
+    public int getRippleEmitterOverflowPolicy() {
+        return rippleEngine.getEmitterOverflowPolicy();
+    }
+
+    /**
+     * @return True if the ripples are drawn from pre-rendered sprites
+     */
+    public boolean isEnableSpriteRendering() {
+        return enableSpriteRendering;
+    }
+
     /**
      * @return The shape renderer for the shape ripples
      */
@@ -689,12 +1285,33 @@ public class ShapeRipple extends View {
     }
 
     /**
-     * @return The list of developer predefined random colors
+     * @return A copy of the list of developer predefined random colors
      */
     public List<Integer> getRippleRandomColors() {
+        int[] colors = rippleEngine.getRippleRandomColors();
+        List<Integer> rippleRandomColors = new ArrayList<>(colors.length);
+
+        for (int color : colors) {
+            rippleRandomColors.add(color);
+        }
+
         return rippleRandomColors;
     }
 
+    /**
+     * @return The strategy of the positions when the random position is enabled
+     */
+    public PositionGenerator getRipplePositionGenerator() {
+        return rippleEngine.getPositionGenerator();
+    }
+
+    /**
+     * @return The strategy of the colors when the random color is enabled
+     */
+    public ColorGenerator getRippleColorGenerator() {
+        return rippleEngine.getColorGenerator();
+    }
+
     /**
      * Change the maximum size of the ripple, default to the size of the layout.
      * <p>
@@ -707,8 +1324,10 @@ public class ShapeRipple extends View {
             throw new IllegalArgumentException("Ripple max radius must be greater than 0");
         }
 
-        this.rippleMaximumRadius = rippleMaximumRadius;
-        requestLayout();
+        rippleEngine.setRippleMaximumRadius(rippleMaximumRadius);
+
+        // the radius does not change the size of the view so only the ripples are created again
+        initializeEntries();
     }
 
     /**
@@ -717,7 +1336,7 @@ public class ShapeRipple extends View {
      * @param enableColorTransition flag for enabling color trasition
      */
     public void setEnableColorTransition(boolean enableColorTransition) {
-        this.enableColorTransition = enableColorTransition;
+        rippleEngine.setEnableColorTransition(enableColorTransition);
     }
 
     /**
@@ -726,9 +1345,9 @@ public class ShapeRipple extends View {
      * @param enableSingleRipple flag for enabling single ripple
      */
     public void setEnableSingleRipple(boolean enableSingleRipple) {
-        this.enableSingleRipple = enableSingleRipple;
+        rippleEngine.setEnableSingleRipple(enableSingleRipple);
 
-        initializeEntries(rippleShape);
+        initializeEntries();
     }
 
     /**
@@ -743,6 +1362,8 @@ public class ShapeRipple extends View {
         }
 
         this.rippleStrokeWidth = rippleStrokeWidth;
+        rippleEngine.setRippleStrokeWidth(rippleStrokeWidth);
+        shapeSpriteCache.invalidate();
     }
 
     /**
@@ -761,7 +1382,7 @@ public class ShapeRipple extends View {
      * @param instant     flag for when changing color is instant without delay
      */
     public void setRippleColor(int rippleColor, boolean instant) {
-        this.rippleColor = rippleColor;
+        rippleEngine.setRippleColor(rippleColor);
 
         if (instant) {
             reconfigureEntries();
@@ -807,7 +1428,7 @@ public class ShapeRipple extends View {
      * @param instant       flag for when changing color is instant without delay
      */
     public void setRippleToColor(int rippleToColor, boolean instant) {
-        this.rippleToColor = rippleToColor;
+        rippleEngine.setRippleToColor(rippleToColor);
 
         if (instant) {
             reconfigureEntries();
@@ -815,7 +1436,7 @@ public class ShapeRipple extends View {
     }
 
     /**
-     * Change the ripple duration of the animator
+     * Change the ripple duration of the animation
      *
      * @param millis The duration in milliseconds
      */
@@ -826,10 +1447,11 @@ public class ShapeRipple extends View {
         }
 
         this.rippleDuration = millis;
+        this.timingVersion++;
 
-        // We set the duration here this will auto change the animator
-        if (rippleValueAnimator != null) {
-            rippleValueAnimator.setDuration(rippleDuration);
+        // We set the duration here this will auto change the running animation
+        if (rippleFrameDriver != null) {
+            rippleFrameDriver.setDuration(rippleDuration);
         }
     }
 
@@ -839,13 +1461,13 @@ public class ShapeRipple extends View {
      * @param enableRandomPosition flag for enabling random position
      */
     public void setEnableRandomPosition(boolean enableRandomPosition) {
-        this.enableRandomPosition = enableRandomPosition;
+        rippleEngine.setEnableRandomPosition(enableRandomPosition);
 
-        initializeEntries(rippleShape);
+        initializeEntries();
     }
 
     /**
-     * Change the {@link Interpolator} of the animator
+     * Change the {@link Interpolator} of the animation progress
      *
      * @param rippleInterpolator The interpolator
      */
@@ -856,6 +1478,7 @@ public class ShapeRipple extends View {
         }
 
         this.rippleInterpolator = rippleInterpolator;
+        this.timingVersion++;
     }
 
     /**
@@ -864,7 +1487,7 @@ public class ShapeRipple extends View {
      * @param enableRandomColor flag for enabling random color
      */
     public void setEnableRandomColor(boolean enableRandomColor) {
-        this.enableRandomColor = enableRandomColor;
+        rippleEngine.setEnableRandomColor(enableRandomColor);
 
         reconfigureEntries();
     }
@@ -880,8 +1503,27 @@ public class ShapeRipple extends View {
             throw new NullPointerException("Invalid ripple count");
         }
 
-        this.rippleCount = rippleCount;
-        requestLayout();
+        rippleEngine.setRippleCount(rippleCount);
+
+        // the count does not change the size of the view so only the ripples are created again
+        initializeEntries();
+    }
+
+    /**
+     * Change the number of precomputed keyframes of each ripple interval, the ripples repeat every
+     * rippleDuration / rippleCount so once every ripple is started each frame is read from the keyframes
+     * instead of being calculated. This is used for long running ripples, it is 0 (disabled) by default.
+     * <p>
+     * The keyframes are only used when the random position, random color and single ripple are disabled.
+     *
+     * @param keyframeResolution The number of keyframes of each ripple interval, 0 to disable the keyframes
+     */
+    public void setRippleKeyframeResolution(int keyframeResolution) {
+        if (keyframeResolution < NO_VALUE) {
+            throw new IllegalArgumentException("Ripple keyframe resolution must be >= 0");
+        }
+
+        rippleEngine.setKeyframeResolution(keyframeResolution);
     }
 
     /**
@@ -897,6 +1539,223 @@ public class ShapeRipple extends View {
         } else {
             this.shapePaint.setStyle(Paint.Style.FILL);
         }
+
+        shapeSpriteCache.invalidate();
+    }
+
+    /**
+     * Enables drawing the ripples from sprites of the shape that are pre-rendered at a few sizes, this is
+     * cheaper for complex shapes and stroked paths. The sprites are tinted with the color of each ripple
+     * so it is only used for shapes where {@link BaseShape#isSpriteSupported()} is true.
+     *
+     * @param enableSpriteRendering flag for enabling sprite rendering
+     */
+    public void setEnableSpriteRendering(boolean enableSpriteRendering) {
+        this.enableSpriteRendering = enableSpriteRendering;
+
+        if (!enableSpriteRendering) {
+            shapeSpriteCache.release();
+        }
+    }
+
+    /**
+     * Enables the quality governor, it measures how long the ripples take to update and draw and how late the frames
+     * arrive. When the frames run over budget the quality is stepped down one level at a time: anti alias off, sprite
+     * rendering, half of the frame rate and half of the ripples. The quality is stepped back up when the frames are
+     * cheap again.
+     *
+     * @param enableQualityGovernor flag for enabling the quality governor
+     */
+    public void setEnableQualityGovernor(boolean enableQualityGovernor) {
+        if (enableQualityGovernor == (qualityGovernor != null)) {
+            return;
+        }
+
+        if (enableQualityGovernor) {
+            qualityGovernor = new RippleQualityGovernor(this);
+        } else {
+            qualityGovernor = null;
+            applyQualityLevel(RippleQualityGovernor.QUALITY_FULL);
+        }
+    }
+
+    /**
+     * Change the listener of the performance statistics, it is called every {@value #DEFAULT_STATS_REPORT_FRAMES}
+     * drawn frames. See {@link #setOnRippleStatsListener(OnRippleStatsListener, int)}
+     *
+     * @param listener The listener or null to stop measuring
+     */
+    public void setOnRippleStatsListener(OnRippleStatsListener listener) {
+        setOnRippleStatsListener(listener, DEFAULT_STATS_REPORT_FRAMES);
+    }
+
+    /**
+     * Change the listener of the performance statistics such as the time to update and draw the ripples, the
+     * number of drawn ripples and the frame intervals. Nothing is measured when there is no listener.
+     *
+     * @param listener The listener or null to stop measuring
+     * @param reportFrames The number of drawn frames of each report
+     */
+    public void setOnRippleStatsListener(OnRippleStatsListener listener, int reportFrames) {
+        if (reportFrames <= 0) {
+            throw new IllegalArgumentException("Report frames must be > 0");
+        }
+
+        this.rippleStatsListener = listener;
+        this.rippleStatsReportFrames = reportFrames;
+
+        if (listener == null) {
+            rippleStats = null;
+        } else if (rippleStats == null) {
+            rippleStats = new RippleStats();
+        }
+    }
+
+    /**
+     * Enables the process wide shared clock, all views that enabled it are advanced by a single frame
+     * callback and views with the same configuration, duration and interpolator share the same ripples
+     * so they are only simulated once. The running animation is restarted.
+     * <p>
+     * The random position and random color are shared as well, views that should not pulse in
+     * sync needs a different configuration or the shared clock disabled.
+     *
+     * @param enableSharedClock flag for enabling the shared clock
+     */
+    public void setEnableSharedClock(boolean enableSharedClock) {
+        if (this.enableSharedClock == enableSharedClock) {
+            return;
+        }
+
+        this.enableSharedClock = enableSharedClock;
+
+        if (!isStopped) {
+            startRipple();
+        }
+    }
+
+    /**
+     * Starts editing several options at once, the ripples are only created or re configured once
+     * when {@link Editor#apply()} is called:
+     * <pre>
+     * shapeRipple.edit()
+     *         .setRippleCount(10)
+     *         .setRippleColor(Color.BLUE)
+     *         .setEnableRandomPosition(true)
+     *         .apply();
+     * </pre>
+     * The setters of the view called before the changes are applied are part of the same edit, calling
+     * this again before applying returns the same editor. Only the setters are deferred, the ripples are
+     * still created by the layout and {@link #startRipple()} while the view is edited.
+     *
+     * @return The editor of the changes
+     */
+    public Editor edit() {
+        if (editor == null) {
+            editor = new Editor();
+            editTransaction.open();
+        }
+        return editor;
+    }
+
+    /**
+     * Starts a single ripple at the position, it grows for the ripple duration on top of the periodic ripples
+     * and uses the same shape and colors. Emitting does not allocate, the emitted ripples come from a pool of
+     * {@link #getRippleEmitterCapacity()} ripples and the {@link #getRippleEmitterOverflowPolicy()} decides what
+     * happens when it is full.
+     * <p>
+     * When the shared clock is enabled the ripple is shown by every view that shares the same ripples.
+     *
+     * @param x The X position in pixel relative to this view
+     * @param y The Y position in pixel relative to this view
+     * @return False when the ripple is rejected or the ripple is not running, always true when the worker thread is enabled
+     */
+    public boolean emitAt(float x, float y) {
+        if (isWorkerRendering()) {
+            rippleWorker.emit(x, y);
+            return true;
+        }
+
+        if (!getActiveEngine().emit(x, y)) {
+            logD("The emitted ripple was rejected!!");
+            return false;
+        }
+
+        invalidateRipples();
+        return true;
+    }
+
+    /**
+     * Enables emitting a ripple with {@link #emitAt(float, float)} where the view is touched, each finger that
+     * goes down emits a ripple. The touch events are consumed while it is enabled.
+     *
+     * @param enableTouchEmitter flag for enabling the touch emitter
+     */
+    public void setEnableTouchEmitter(boolean enableTouchEmitter) {
+        this.enableTouchEmitter = enableTouchEmitter;
+    }
+
+    /**
+     * Enables updating the ripples on a worker thread, the main thread only draws the latest snapshot of the
+     * ripples which is handed over without locking. The worker has its own copy of the configuration so the
+     * ripples start over every time the configuration changes. Ignored while the shared clock is enabled.
+     * <p>
+     * The update and draw statistics only measure the drawing while it is enabled.
+     *
+     * @param enableWorkerThread flag for enabling the worker thread
+     */
+    public void setEnableWorkerThread(boolean enableWorkerThread) {
+        if (enableWorkerThread == (rippleWorker != null)) {
+            return;
+        }
+
+        if (enableWorkerThread) {
+            rippleWorker = new RippleWorker(this);
+
+            if (getWindowToken() != null) {
+                rippleWorker.start();
+            }
+        } else {
+            rippleWorker.quit();
+            rippleWorker = null;
+        }
+    }
+
+    /**
+     * Enables advancing the ripples by the real time elapsed between the frames instead of the progress of the
+     * animation. Dropped frames do not slow the ripples down, several ripples can finish in a single frame and
+     * a long stall catches up at most the duration of a single ripple. The interpolator is not used.
+     * <p>
+     * Not used while the shared clock is enabled, the shared clock has its own timing.
+     *
+     * @param enableTimeBasedSimulation flag for enabling the time based simulation
+     */
+    public void setEnableTimeBasedSimulation(boolean enableTimeBasedSimulation) {
+        this.enableTimeBasedSimulation = enableTimeBasedSimulation;
+        rippleEngine.resetFrameTime();
+    }
+
+    /**
+     * Change the maximum number of emitted ripples that are alive at the same time, the pool is allocated
+     * once here so the emitted ripples that are alive are removed.
+     *
+     * @param capacity The maximum number of emitted ripples, must be > 0
+     */
+    public void setRippleEmitterCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Emitter capacity must be > 0");
+        }
+
+        rippleEngine.setEmitterCapacity(capacity);
+    }
+
+    /**
+     * Change what happens to a ripple emitted while {@link #getRippleEmitterCapacity()} ripples are alive, by
+     * default it is {@link #EMITTER_OVERFLOW_DROP_OLDEST}
+     *
+     * @param overflowPolicy {@link #EMITTER_OVERFLOW_DROP_OLDEST} or {@link #EMITTER_OVERFLOW_REJECT}
+     */
+    public void setRippleEmitterOverflowPolicy(int overflowPolicy) {
+        rippleEngine.setEmitterOverflowPolicy(overflowPolicy);
     }
 
     /**
@@ -905,10 +1764,20 @@ public class ShapeRipple extends View {
      * @param rippleShape The renderer of shapes ripple
      */
     public void setRippleShape(BaseShape rippleShape) {
+        // release the resources of the replaced shape
+        if (this.rippleShape != null && this.rippleShape != rippleShape) {
+            this.rippleShape.onRelease();
+        }
+
         this.rippleShape = rippleShape;
+        this.traceSectionDraw = "ShapeRipple#draw " + rippleShape.getClass().getSimpleName();
 
         // Make sure we call onSetup right away
+        this.rippleShape.setWidth(rippleEngine.getViewWidth());
+        this.rippleShape.setHeight(rippleEngine.getViewHeight());
+        this.rippleShape.setMaxRadius(rippleEngine.getMaxRippleRadius());
         this.rippleShape.onSetup(getContext(), this.shapePaint);
+        shapeSpriteCache.invalidate();
 
         reconfigureEntries();
     }
@@ -928,10 +1797,67 @@ public class ShapeRipple extends View {
             throw new IllegalArgumentException("List of color cannot be empty");
         }
 
-        // We clear the list of colors before adding new colors
-        this.rippleRandomColors.clear();
+        int[] colors = new int[rippleRandomColors.size()];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = rippleRandomColors.get(i);
+        }
+
+        rippleEngine.setRippleRandomColors(colors);
+
+        reconfigureEntries();
+    }
+
+    /**
+     * Change the developer predefined random colors
+     *
+     * @param rippleRandomColors The colors, the array is copied
+     */
+    public void setRippleRandomColors(int[] rippleRandomColors) {
+
+        if (rippleRandomColors == null) {
+            throw new NullPointerException("Array of colors cannot be null");
+        }
+
+        if (rippleRandomColors.length == 0) {
+            throw new IllegalArgumentException("Array of color cannot be empty");
+        }
+
+        rippleEngine.setRippleRandomColors(rippleRandomColors.clone());
+
+        reconfigureEntries();
+    }
+
+    /**
+     * Change the strategy of the positions when the random position is enabled, such as
+     * {@link PositionPool#halton(int)} or {@link PositionPool#blueNoise(long, int)} so the ripples overlap less.
+     * By default it is {@link PositionPool#random(long, int)}.
+     *
+     * @param positionGenerator The strategy of the positions
+     */
+    public void setRipplePositionGenerator(PositionGenerator positionGenerator) {
+
+        if (positionGenerator == null) {
+            throw new NullPointerException("Position generator cannot be null");
+        }
+
+        rippleEngine.setPositionGenerator(positionGenerator);
+
+        initializeEntries();
+    }
+
+    /**
+     * Change the strategy of the colors when the random color is enabled, such as {@link ColorPool#sequential()}.
+     * By default it is {@link ColorPool#random(long, int)}.
+     *
+     * @param colorGenerator The strategy of the colors
+     */
+    public void setRippleColorGenerator(ColorGenerator colorGenerator) {
+
+        if (colorGenerator == null) {
+            throw new NullPointerException("Color generator cannot be null");
+        }
 
-        this.rippleRandomColors = rippleRandomColors;
+        rippleEngine.setColorGenerator(colorGenerator);
 
         reconfigureEntries();
     }
@@ -940,6 +1866,25 @@ public class ShapeRipple extends View {
      * Enabled the debugging for the library
      */
     public static void enableDebugging() {
-        ShapeRipple.DEBUG = true;
+        setDebugLogLevel(Log.DEBUG);
+    }
+
+    /**
+     * Change the minimum priority of the debug messages of the library that are logged, the messages
+     * are rate limited so logging from the frames does not flood the log.
+     *
+     * @param priority The {@link Log} priority such as {@link Log#DEBUG} or {@link Log#ERROR}
+     */
+    public static void setDebugLogLevel(int priority) {
+        DebugLogger.setLogLevel(priority);
+    }
+
+    /**
+     * Enables the system trace sections and counters of the ripples, the update of the ripples and the draw
+     * of each shape are traced so they show up in systrace and Perfetto. The sections are only available on
+     * JELLY_BEAN_MR2 and up, and the counters on Q and up.
+     */
+    public static void enableTracing() {
+        RippleTrace.enable();
     }
 }
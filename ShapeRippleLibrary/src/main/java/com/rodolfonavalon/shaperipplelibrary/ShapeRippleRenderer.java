@@ -0,0 +1,665 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+
+import com.rodolfonavalon.shaperipplecore.RippleEngine;
+import com.rodolfonavalon.shaperipplecore.data.RippleBatch;
+import com.rodolfonavalon.shaperipplelibrary.model.BaseShape;
+import com.rodolfonavalon.shaperipplelibrary.model.Circle;
+import com.rodolfonavalon.shaperipplelibrary.util.ShapePulseUtil;
+
+import static com.rodolfonavalon.shaperipplelibrary.DebugLogger.logD;
+
+/**
+ * Renders the ripples of a {@link ShapeRippleSurfaceView} or a {@link ShapeRippleTextureView} on a dedicated
+ * render thread, the ripples are advanced and drawn straight into the surface so a busy main thread does not
+ * stall them and the view hierarchy never draws them.
+ * <p>
+ * The configuration is read from the same {@link RippleAttributes} as the {@link ShapeRipple}, the attributes of
+ * the view drawing such as the shared clock, the sprite rendering and the quality governor are ignored.
+ * <p>
+ * NOTE: Every method must be called from the main thread, the state is guarded by a lock that the render
+ * thread only holds while it advances the ripples and copies them, the frame is drawn outside of it.
+ */
+public final class ShapeRippleRenderer implements Choreographer.FrameCallback, Runnable {
+
+    private static final int NO_VALUE = RippleEngine.NO_VALUE;
+
+    private static final long NANOS_PER_MILLIS = 1000000L;
+
+    /**
+     * The delay of each frame when the {@link Choreographer} is not available
+     */
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
+    private static final long NO_TIME = -1;
+
+    private static final String RENDER_THREAD_NAME = "ShapeRippleRenderer";
+
+    private static final String TRACE_SECTION_FRAME = "ShapeRippleRenderer#frame";
+
+    /**
+     * The surface where the frames are drawn
+     */
+    interface Output {
+
+        /**
+         * @return The canvas of the next frame or null when the surface cannot be drawn
+         */
+        Canvas lockCanvas();
+
+        void unlockCanvasAndPost(Canvas canvas);
+    }
+
+    /**
+     * Held by the render thread while a frame is drawn into the {@link #output}, it is taken before the
+     * {@link #lock} so the surface is not released in the middle of a frame
+     */
+    private final Object outputLock = new Object();
+
+    /**
+     * Guards every field below, held by the render thread while the ripples of a frame are advanced and copied
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Guards the {@link #rippleShape} while the render thread draws it, it is taken after the {@link #lock}
+     */
+    private final Object shapeLock = new Object();
+
+    private final Context context;
+
+    private final RippleEngine rippleEngine = new RippleEngine();
+
+    /**
+     * The ripples of the frame that is drawn, only used by the render thread
+     */
+    private final RippleBatch rippleBatch = new RippleBatch();
+
+    /**
+     * The copy of the {@link #shapePaint} of the frame that is drawn, only used by the render thread
+     */
+    private final Paint drawPaint = new Paint();
+
+    private final Paint shapePaint;
+
+    private BaseShape rippleShape;
+
+    private Interpolator rippleInterpolator = new LinearInterpolator();
+
+    private long durationNanos = RippleAttributes.DEFAULT_RIPPLE_DURATION * NANOS_PER_MILLIS;
+
+    /**
+     * The frame time where the progress of the animation is 0, it is calculated on the first frame
+     */
+    private long startTimeNanos = NO_TIME;
+
+    /**
+     * The frame time of the last frame
+     */
+    private long lastFrameTimeNanos = NO_TIME;
+
+    /**
+     * The progress of the last frame before interpolation, the animation repeated when it goes back
+     */
+    private float lastProgress;
+
+    /**
+     * The surface of the frames, null while there is no surface
+     */
+    private Output output;
+
+    private HandlerThread renderThread;
+
+    /**
+     * The handler of the {@link #renderThread}, null while it is not running
+     */
+    private Handler renderHandler;
+
+    /**
+     * Posts a single cleared frame to the {@link #output} so the last frame of the ripples is not left on it
+     */
+    private final Runnable clearFrame = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (outputLock) {
+                Output frameOutput;
+
+                synchronized (lock) {
+                    // the ripples were started again or there is nothing to clear
+                    if (isStarted || output == null) {
+                        return;
+                    }
+
+                    frameOutput = output;
+                }
+
+                Canvas canvas = frameOutput.lockCanvas();
+                if (canvas == null) {
+                    return;
+                }
+
+                try {
+                    canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                } finally {
+                    frameOutput.unlockCanvasAndPost(canvas);
+                }
+            }
+        }
+    };
+
+    /**
+     * Flag for when the ripples are started, they are only drawn while there is a surface as well
+     */
+    private boolean isStarted = true;
+
+    /**
+     * Flag for when the render thread is requesting frames, the frames stop while there is nothing to draw
+     */
+    private boolean isLooping;
+
+    /**
+     * Enables emitting a ripple where the view is touched, only read on the main thread
+     */
+    private boolean enableTouchEmitter;
+
+    /**
+     * Advances the ripples by the elapsed frame time instead of the progress of the animation, see
+     * {@link ShapeRipple#setEnableTimeBasedSimulation(boolean)}
+     */
+    private boolean enableTimeBasedSimulation;
+
+    ShapeRippleRenderer(Context context, AttributeSet attrs) {
+        this.context = context;
+
+        shapePaint = new Paint();
+        shapePaint.setAntiAlias(true);
+        shapePaint.setDither(true);
+        shapePaint.setStyle(Paint.Style.FILL);
+
+        rippleShape = new Circle();
+        rippleShape.onSetup(context, shapePaint);
+
+        RippleAttributes attributes = new RippleAttributes(context, attrs);
+
+        rippleEngine.setRippleRandomColors(ShapePulseUtil.generateRandomColourArray());
+        rippleEngine.setRippleColor(attributes.rippleColor);
+        rippleEngine.setRippleToColor(attributes.rippleToColor);
+        setRippleDuration(attributes.rippleDuration);
+        rippleEngine.setEnableColorTransition(attributes.enableColorTransition);
+        rippleEngine.setEnableSingleRipple(attributes.enableSingleRipple);
+        rippleEngine.setEnableRandomPosition(attributes.enableRandomPosition);
+        rippleEngine.setEnableRandomColor(attributes.enableRandomColor);
+        rippleEngine.setRippleMaximumRadius(attributes.rippleMaximumRadius);
+        rippleEngine.setRippleCount(attributes.rippleCount);
+        rippleEngine.setKeyframeResolution(attributes.rippleKeyframeResolution);
+        rippleEngine.setEmitterCapacity(attributes.rippleEmitterCapacity);
+        enableTouchEmitter = attributes.enableTouchEmitter;
+        enableTimeBasedSimulation = attributes.enableTimeBasedSimulation;
+        setEnableStrokeStyle(attributes.enableStrokeStyle);
+        setRippleStrokeWidth(attributes.rippleStrokeWidth);
+    }
+
+    /**
+     * Starts the render thread, called when the view is attached
+     */
+    void startThread() {
+        if (renderThread != null) {
+            return;
+        }
+
+        renderThread = new HandlerThread(RENDER_THREAD_NAME);
+        renderThread.start();
+
+        synchronized (lock) {
+            renderHandler = new Handler(renderThread.getLooper());
+            requestFrames();
+        }
+    }
+
+    /**
+     * Stops the render thread, called when the view is detached
+     */
+    void quitThread() {
+        if (renderThread == null) {
+            return;
+        }
+
+        synchronized (lock) {
+            isLooping = false;
+            renderHandler = null;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            quitSafely(renderThread);
+        } else {
+            renderThread.quit();
+        }
+
+        renderThread = null;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void quitSafely(HandlerThread thread) {
+        thread.quitSafely();
+    }
+
+    /**
+     * Changes the surface where the frames are drawn, the ripples are created for the size of the surface
+     */
+    void setOutput(Output output, int width, int height) {
+        synchronized (lock) {
+            this.output = output;
+            setOutputSize(width, height);
+            requestFrames();
+        }
+    }
+
+    /**
+     * Changes the size of the surface, the ripples are created again
+     */
+    void setOutputSize(int width, int height) {
+        synchronized (lock) {
+            rippleEngine.setViewSize(width, height);
+
+            synchronized (shapeLock) {
+                rippleShape.setWidth(width);
+                rippleShape.setHeight(height);
+            }
+
+            initializeEntries();
+        }
+    }
+
+    /**
+     * Removes the surface, it is not drawn anymore when this returns since the frame that is being drawn is
+     * waited for
+     */
+    void releaseOutput() {
+        synchronized (outputLock) {
+            synchronized (lock) {
+                this.output = null;
+            }
+        }
+    }
+
+    /**
+     * Starts the frames of the render thread when there is something to draw, the first frame is posted to the
+     * render thread since the {@link Choreographer} belongs to the thread that calls it.
+     */
+    private void requestFrames() {
+        if (isLooping || renderHandler == null || !isStarted || output == null) {
+            return;
+        }
+
+        isLooping = true;
+        renderHandler.post(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        Handler handler;
+
+        synchronized (outputLock) {
+            Output frameOutput;
+            boolean isRendered;
+
+            synchronized (lock) {
+                if (!isLooping) {
+                    return;
+                }
+
+                // the frames are requested again when there is something to draw
+                if (!isStarted || output == null) {
+                    isLooping = false;
+                    return;
+                }
+
+                RippleTrace.beginSection(TRACE_SECTION_FRAME);
+                isRendered = renderFrame(frameTimeNanos);
+
+                frameOutput = output;
+                handler = renderHandler;
+            }
+
+            // the setters are not blocked while the surface is waited for
+            if (isRendered) {
+                drawFrame(frameOutput);
+            }
+
+            RippleTrace.endSection();
+        }
+
+        if (handler == null) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postFrameCallback();
+        } else {
+            handler.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    @Override
+    public void run() {
+        doFrame(System.nanoTime());
+    }
+
+    /**
+     * Advances the ripples to the frame time and copies them with the paint into the render thread snapshot,
+     * called while holding the {@link #lock}
+     *
+     * @return False when there are no ripples to draw
+     */
+    private boolean renderFrame(long frameTimeNanos) {
+        if (startTimeNanos == NO_TIME) {
+            startTimeNanos = frameTimeNanos;
+        }
+
+        long elapsedNanos = Math.max(frameTimeNanos - startTimeNanos, 0);
+        float progress = durationNanos > 0 ? (elapsedNanos % durationNanos) / (float) durationNanos : 0;
+        boolean isRepeated = progress < lastProgress;
+        lastProgress = progress;
+        lastFrameTimeNanos = frameTimeNanos;
+
+        boolean isRendered = enableTimeBasedSimulation
+                ? rippleEngine.renderNanos(frameTimeNanos, durationNanos)
+                : rippleEngine.render(rippleInterpolator.getInterpolation(progress), isRepeated);
+
+        if (!isRendered) {
+            logD("There are no ripple entries that was created!!");
+            return false;
+        }
+
+        rippleEngine.fillBatch(rippleBatch);
+        drawPaint.set(shapePaint);
+        return true;
+    }
+
+    /**
+     * Draws the render thread snapshot into the surface, called while holding the {@link #outputLock} only
+     */
+    private void drawFrame(Output frameOutput) {
+        Canvas canvas = frameOutput.lockCanvas();
+        if (canvas == null) {
+            return;
+        }
+
+        try {
+            canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+            synchronized (shapeLock) {
+                rippleShape.onDrawBatch(canvas, rippleBatch.size(), rippleBatch.getX(), rippleBatch.getY(),
+                        rippleBatch.getRadiusSize(), rippleBatch.getColor(), rippleBatch.getRippleIndex(), drawPaint);
+            }
+        } finally {
+            frameOutput.unlockCanvasAndPost(canvas);
+        }
+    }
+
+    /**
+     * Creates the ripples of the {@link #rippleEngine} for the current size and restarts the animation
+     */
+    private void initializeEntries() {
+        shapePaint.setStrokeWidth(rippleEngine.getRippleStrokeWidth());
+
+        rippleEngine.initializeEntries();
+
+        synchronized (shapeLock) {
+            rippleShape.setMaxRadius(rippleEngine.getMaxRippleRadius());
+        }
+
+        startTimeNanos = NO_TIME;
+        lastFrameTimeNanos = NO_TIME;
+        lastProgress = 0;
+    }
+
+    /**
+     * The {@link Choreographer} of the render thread, it is created for the looper of the calling thread
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+
+    /**
+     * Starts the ripples from the beginning
+     */
+    public void startRipple() {
+        synchronized (lock) {
+            initializeEntries();
+            isStarted = true;
+            requestFrames();
+        }
+    }
+
+    /**
+     * Stops the ripples, the last frame is cleared from the surface by the render thread
+     */
+    public void stopRipple() {
+        synchronized (lock) {
+            isStarted = false;
+            rippleEngine.clearEntries();
+
+            if (renderHandler != null) {
+                renderHandler.post(clearFrame);
+            }
+        }
+    }
+
+    /**
+     * Starts a single ripple at the position, see {@link ShapeRipple#emitAt(float, float)}
+     *
+     * @return False when the ripple is rejected or the ripple is not running
+     */
+    public boolean emitAt(float x, float y) {
+        synchronized (lock) {
+            return rippleEngine.emit(x, y);
+        }
+    }
+
+    /**
+     * Emits a ripple for each finger that goes down when the touch emitter is enabled
+     *
+     * @return True when the touch event is consumed
+     */
+    boolean onTouchEvent(MotionEvent event) {
+        if (!enableTouchEmitter) {
+            return false;
+        }
+
+        int action = event.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_POINTER_DOWN) {
+            int pointerIndex = event.getActionIndex();
+            emitAt(event.getX(pointerIndex), event.getY(pointerIndex));
+        }
+
+        return true;
+    }
+
+    /**
+     * Enables emitting a ripple where the view is touched, see {@link ShapeRipple#setEnableTouchEmitter(boolean)}
+     *
+     * @param enableTouchEmitter flag for enabling the touch emitter
+     */
+    public void setEnableTouchEmitter(boolean enableTouchEmitter) {
+        this.enableTouchEmitter = enableTouchEmitter;
+    }
+
+    /**
+     * Change the shape renderer of the ripples, the shape is drawn on the render thread
+     *
+     * @param rippleShape The renderer of shapes ripple
+     */
+    public void setRippleShape(BaseShape rippleShape) {
+        synchronized (lock) {
+            // waits for the render thread to finish drawing the old shape before it is released
+            synchronized (shapeLock) {
+                if (this.rippleShape != rippleShape) {
+                    this.rippleShape.onRelease();
+                }
+
+                this.rippleShape = rippleShape;
+                this.rippleShape.setWidth(rippleEngine.getViewWidth());
+                this.rippleShape.setHeight(rippleEngine.getViewHeight());
+                this.rippleShape.setMaxRadius(rippleEngine.getMaxRippleRadius());
+                this.rippleShape.onSetup(context, shapePaint);
+            }
+        }
+    }
+
+    public void setRippleColor(int rippleColor) {
+        synchronized (lock) {
+            rippleEngine.setRippleColor(rippleColor);
+            rippleEngine.reconfigureEntries();
+        }
+    }
+
+    public void setRippleToColor(int rippleToColor) {
+        synchronized (lock) {
+            rippleEngine.setRippleToColor(rippleToColor);
+        }
+    }
+
+    /**
+     * Change the duration of a single ripple, the current progress is kept
+     *
+     * @param millis The duration of a single ripple in milliseconds
+     */
+    public void setRippleDuration(int millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Ripple duration must be > 0");
+        }
+
+        synchronized (lock) {
+            long newDurationNanos = millis * NANOS_PER_MILLIS;
+
+            // the animation continues from the progress of the last frame, see RippleFrameDriver#setDuration
+            if (startTimeNanos != NO_TIME && lastFrameTimeNanos != NO_TIME) {
+                startTimeNanos = lastFrameTimeNanos - (long) (lastProgress * newDurationNanos);
+            }
+
+            this.durationNanos = newDurationNanos;
+        }
+    }
+
+    public void setRippleInterpolator(Interpolator rippleInterpolator) {
+        if (rippleInterpolator == null) {
+            throw new NullPointerException("Ripple interpolator in null");
+        }
+
+        synchronized (lock) {
+            this.rippleInterpolator = rippleInterpolator;
+        }
+    }
+
+    public void setRippleStrokeWidth(int rippleStrokeWidth) {
+        if (rippleStrokeWidth <= 0) {
+            throw new IllegalArgumentException("Ripple stroke width must be > 0");
+        }
+
+        synchronized (lock) {
+            rippleEngine.setRippleStrokeWidth(rippleStrokeWidth);
+            shapePaint.setStrokeWidth(rippleStrokeWidth);
+        }
+    }
+
+    public void setRippleCount(int rippleCount) {
+        if (rippleCount <= NO_VALUE) {
+            throw new IllegalArgumentException("Invalid ripple count");
+        }
+
+        synchronized (lock) {
+            rippleEngine.setRippleCount(rippleCount);
+            initializeEntries();
+        }
+    }
+
+    public void setRippleMaximumRadius(float rippleMaximumRadius) {
+        if (rippleMaximumRadius <= NO_VALUE) {
+            throw new IllegalArgumentException("Ripple max radius must be greater than 0");
+        }
+
+        synchronized (lock) {
+            rippleEngine.setRippleMaximumRadius(rippleMaximumRadius);
+            initializeEntries();
+        }
+    }
+
+    public void setEnableColorTransition(boolean enableColorTransition) {
+        synchronized (lock) {
+            rippleEngine.setEnableColorTransition(enableColorTransition);
+        }
+    }
+
+    public void setEnableSingleRipple(boolean enableSingleRipple) {
+        synchronized (lock) {
+            rippleEngine.setEnableSingleRipple(enableSingleRipple);
+            initializeEntries();
+        }
+    }
+
+    public void setEnableRandomPosition(boolean enableRandomPosition) {
+        synchronized (lock) {
+            rippleEngine.setEnableRandomPosition(enableRandomPosition);
+            initializeEntries();
+        }
+    }
+
+    public void setEnableRandomColor(boolean enableRandomColor) {
+        synchronized (lock) {
+            rippleEngine.setEnableRandomColor(enableRandomColor);
+            rippleEngine.reconfigureEntries();
+        }
+    }
+
+    /**
+     * Advances the ripples by the elapsed frame time instead of the progress of the animation, see
+     * {@link ShapeRipple#setEnableTimeBasedSimulation(boolean)}
+     *
+     * @param enableTimeBasedSimulation flag for enabling the time based simulation
+     */
+    public void setEnableTimeBasedSimulation(boolean enableTimeBasedSimulation) {
+        synchronized (lock) {
+            this.enableTimeBasedSimulation = enableTimeBasedSimulation;
+            rippleEngine.resetFrameTime();
+        }
+    }
+
+    public void setEnableStrokeStyle(boolean enableStrokeStyle) {
+        synchronized (lock) {
+            shapePaint.setStyle(enableStrokeStyle ? Paint.Style.STROKE : Paint.Style.FILL);
+        }
+    }
+}
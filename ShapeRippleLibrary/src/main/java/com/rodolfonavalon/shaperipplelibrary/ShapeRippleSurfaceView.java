@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.PixelFormat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+/**
+ * A {@link ShapeRipple} variant that draws the ripples into its own surface from a render thread, see
+ * {@link ShapeRippleRenderer}. It accepts the same XML attributes as the {@link ShapeRipple}.
+ * <p>
+ * The surface is translucent and placed behind the window like any {@link SurfaceView}, use
+ * {@link ShapeRippleTextureView} when the ripples needs to be transformed or blended with other views.
+ */
+public class ShapeRippleSurfaceView extends SurfaceView implements SurfaceHolder.Callback, ShapeRippleRenderer.Output {
+
+    private final ShapeRippleRenderer rippleRenderer;
+
+    public ShapeRippleSurfaceView(Context context) {
+        this(context, null);
+    }
+
+    public ShapeRippleSurfaceView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public ShapeRippleSurfaceView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        rippleRenderer = new ShapeRippleRenderer(context, attrs);
+
+        getHolder().setFormat(PixelFormat.TRANSLUCENT);
+        getHolder().addCallback(this);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        rippleRenderer.startThread();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        rippleRenderer.quitThread();
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {}
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        rippleRenderer.setOutput(this, width, height);
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        rippleRenderer.releaseOutput();
+    }
+
+    @Override
+    public Canvas lockCanvas() {
+        return getHolder().lockCanvas();
+    }
+
+    @Override
+    public void unlockCanvasAndPost(Canvas canvas) {
+        getHolder().unlockCanvasAndPost(canvas);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return rippleRenderer.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    /**
+     * @return The renderer of the ripples, the ripples are configured through it
+     */
+    public ShapeRippleRenderer getRippleRenderer() {
+        return rippleRenderer;
+    }
+
+    public void startRipple() {
+        rippleRenderer.startRipple();
+    }
+
+    public void stopRipple() {
+        rippleRenderer.stopRipple();
+    }
+}
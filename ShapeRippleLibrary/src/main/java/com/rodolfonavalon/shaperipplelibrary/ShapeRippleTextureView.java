@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.content.Context;
+import android.graphics.SurfaceTexture;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.TextureView;
+
+/**
+ * A {@link ShapeRipple} variant that draws the ripples into a {@link TextureView} from a render thread, see
+ * {@link ShapeRippleRenderer}. It accepts the same XML attributes as the {@link ShapeRipple}.
+ * <p>
+ * Unlike the {@link ShapeRippleSurfaceView} it can be moved, transformed and blended like any other view,
+ * it needs a hardware accelerated window.
+ */
+public class ShapeRippleTextureView extends TextureView implements TextureView.SurfaceTextureListener, ShapeRippleRenderer.Output {
+
+    private final ShapeRippleRenderer rippleRenderer;
+
+    public ShapeRippleTextureView(Context context) {
+        this(context, null);
+    }
+
+    public ShapeRippleTextureView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public ShapeRippleTextureView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        rippleRenderer = new ShapeRippleRenderer(context, attrs);
+
+        setOpaque(false);
+        setSurfaceTextureListener(this);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        rippleRenderer.startThread();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        rippleRenderer.quitThread();
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        rippleRenderer.setOutput(this, width, height);
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        rippleRenderer.setOutputSize(width, height);
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        rippleRenderer.releaseOutput();
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {}
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return rippleRenderer.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    /**
+     * @return The renderer of the ripples, the ripples are configured through it
+     */
+    public ShapeRippleRenderer getRippleRenderer() {
+        return rippleRenderer;
+    }
+
+    public void startRipple() {
+        rippleRenderer.startRipple();
+    }
+
+    public void stopRipple() {
+        rippleRenderer.stopRipple();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import com.rodolfonavalon.shaperipplelibrary.model.BaseShape;
+
+/**
+ * Pre-rendered sprites of a {@link BaseShape} at a few quantized radii, shared by all ripples of a
+ * {@link ShapeRipple}.
+ * <p>
+ * Each sprite is an alpha mask so it is tinted with the color of the ripple when drawn, a ripple
+ * is drawn by scaling down the smallest sprite that is not smaller than its radius.
+ */
+class ShapeSpriteCache {
+
+    /**
+     * The ratio between the radius of two consecutive sprites, the stroke of a
+     * scaled sprite is at most this ratio thinner than the stroke of the paint
+     */
+    private static final float SPRITE_RADIUS_RATIO = 1.41421356f;
+
+    /**
+     * The radius of the smallest sprite
+     */
+    private static final float MIN_SPRITE_RADIUS = 4f;
+
+    /**
+     * The maximum width and height of a sprite, bigger ripples are drawn as shapes
+     */
+    private static final int MAX_SPRITE_SIZE = 1024;
+
+    /**
+     * The radius of each sprite from the smallest to the largest
+     */
+    private float[] spriteRadius = new float[0];
+
+    /**
+     * The half of the width and height of each sprite
+     */
+    private float[] spriteHalfSize = new float[0];
+
+    private Bitmap[] sprites = new Bitmap[0];
+
+    /**
+     * The number of sprites that are built
+     */
+    private int spriteCount;
+
+    /**
+     * Flag for when the sprites needs to be built again before drawing
+     */
+    private boolean isDirty = true;
+
+    /**
+     * The paint used to draw the sprites, the color tints the sprite
+     */
+    private final Paint spritePaint;
+
+    private final RectF spriteBounds = new RectF();
+
+    ShapeSpriteCache() {
+        spritePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    }
+
+    /**
+     * Marks the sprites to be built again on the next draw
+     */
+    void invalidate() {
+        isDirty = true;
+    }
+
+    /**
+     * Draws the ripple with a sprite
+     *
+     * @return False when the ripple is too big for the sprites and it needs to be drawn as a shape
+     */
+    boolean draw(Canvas canvas, BaseShape shape, int x, int y, float radiusSize, int color, Paint shapePaint, float maxRadius) {
+        if (isDirty) {
+            build(shape, shapePaint, maxRadius);
+        }
+
+        int sprite = 0;
+        while (sprite < spriteCount && spriteRadius[sprite] < radiusSize) {
+            sprite++;
+        }
+
+        if (sprite == spriteCount) {
+            return false;
+        }
+
+        float halfSize = spriteHalfSize[sprite] * radiusSize / spriteRadius[sprite];
+        spriteBounds.set(x - halfSize, y - halfSize, x + halfSize, y + halfSize);
+
+        spritePaint.setColor(color);
+        canvas.drawBitmap(sprites[sprite], null, spriteBounds, spritePaint);
+        return true;
+    }
+
+    /**
+     * Rasterize the shape at each sprite radius up to the maximum radius of the ripples
+     */
+    private void build(BaseShape shape, Paint shapePaint, float maxRadius) {
+        release();
+
+        float padding = shapePaint.getStrokeWidth() / 2 + 1;
+
+        int count = 0;
+        for (float radius = MIN_SPRITE_RADIUS; radius / SPRITE_RADIUS_RATIO < maxRadius; radius *= SPRITE_RADIUS_RATIO) {
+            count++;
+        }
+
+        if (sprites.length < count) {
+            sprites = new Bitmap[count];
+            spriteRadius = new float[count];
+            spriteHalfSize = new float[count];
+        }
+
+        Paint paint = new Paint(shapePaint);
+
+        float radius = MIN_SPRITE_RADIUS;
+        for (int i = 0; i < count; i++, radius *= SPRITE_RADIUS_RATIO) {
+            int halfSize = (int) Math.ceil(radius + padding);
+            int size = halfSize * 2;
+            if (size > MAX_SPRITE_SIZE) {
+                break;
+            }
+
+            Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            shape.onDraw(new Canvas(bitmap), halfSize, halfSize, radius, Color.WHITE, 0, paint);
+
+            // only the coverage of the shape is kept, the color comes from the ripple
+            sprites[i] = bitmap.extractAlpha();
+            bitmap.recycle();
+
+            spriteRadius[i] = radius;
+            spriteHalfSize[i] = halfSize;
+            spriteCount = i + 1;
+        }
+
+        isDirty = false;
+    }
+
+    /**
+     * Releases the bitmaps of the sprites, they are built again on the next draw
+     */
+    void release() {
+        for (int i = 0; i < spriteCount; i++) {
+            sprites[i].recycle();
+            sprites[i] = null;
+        }
+
+        spriteCount = 0;
+        isDirty = true;
+    }
+}
@@ -21,6 +21,11 @@ import android.graphics.Color;
 import com.rodolfonavalon.shaperipplelibrary.ShapeRipple;
 import com.rodolfonavalon.shaperipplelibrary.model.BaseShape;
 
+/**
+ * @deprecated The ripples are simulated by the {@link com.rodolfonavalon.shaperipplecore.RippleEngine},
+ * this class is no longer used by {@link ShapeRipple}.
+ */
+@Deprecated
 public class ShapeRippleEntry {
 
     /**
@@ -45,8 +50,7 @@ public class ShapeRippleEntry {
     private float multiplierValue;
 
     /**
-     * The current index of the ripple in the list
-     * from {@link ShapeRipple#shapeRippleEntries}
+     * The current index of the ripple in the list of ripples
      */
     private int rippleIndex;
 
@@ -19,6 +19,7 @@ package com.rodolfonavalon.shaperipplelibrary.model;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
 
 import com.rodolfonavalon.shaperipplelibrary.ShapeRipple;
 
@@ -33,6 +34,11 @@ public abstract class BaseShape {
      */
     protected int height;
 
+    /**
+     * The maximum radius of the ripples in pixel
+     */
+    protected int maxRadius;
+
     /**
      * @return The width of the layout in pixel
      */
@@ -65,6 +71,22 @@ public abstract class BaseShape {
         this.height = height;
     }
 
+    /**
+     * @return The maximum radius of the ripples in pixel
+     */
+    public int getMaxRadius() {
+        return maxRadius;
+    }
+
+    /**
+     * Change the maximum radius of the ripples, the ripples are never drawn bigger than this radius
+     *
+     * @param maxRadius The maximum radius of the ripples in pixel
+     */
+    public void setMaxRadius(int maxRadius) {
+        this.maxRadius = maxRadius;
+    }
+
     /**
      * Setup method for the {@link BaseShape} before ripple rendering happens.
      *
@@ -76,6 +98,12 @@ public abstract class BaseShape {
      */
     public abstract void onSetup(Context context, Paint shapePaint);
 
+    /**
+     * Release method for the {@link BaseShape} when it is replaced by another shape in the
+     * {@link ShapeRipple}, resources loaded in {@link #onSetup(Context, Paint)} should be released here.
+     */
+    public void onRelease() {}
+
     /**
      * This will draw the actual ripple to the canvas.
      *
@@ -88,4 +116,90 @@ public abstract class BaseShape {
      * @param shapePaint The paint of the ripple.
      */
     public abstract void onDraw(Canvas canvas, int x, int y, float radiusSize, int color, int rippleIndex, Paint shapePaint);
+
+    /**
+     * This will draw all the visible ripples of a frame to the canvas, from the outer most ripple to the
+     * inner most. Each array holds at least {@code count} values and the same position of every array
+     * is the same ripple.
+     * <p>
+     * By default each ripple is drawn with {@link #onDraw(Canvas, int, int, float, int, int, Paint)}, override this
+     * when the shape can draw many ripples with fewer canvas calls.
+     *
+     * @param canvas The canvas where the ripples are drawn
+     * @param count The number of ripples to draw
+     * @param x The middle x-axis of each ripple
+     * @param y The middle y-axis of each ripple
+     * @param radiusSize The current radius size of each ripple
+     * @param color The current color of each ripple
+     * @param rippleIndex The index of each ripple, see {@link #onDraw(Canvas, int, int, float, int, int, Paint)}
+     * @param shapePaint The paint of the ripple.
+     */
+    public void onDrawBatch(Canvas canvas, int count, float[] x, float[] y, float[] radiusSize, int[] color, int[] rippleIndex, Paint shapePaint) {
+        for (int i = 0; i < count; i++) {
+            onDraw(canvas, (int) x[i], (int) y[i], radiusSize[i], color[i], rippleIndex[i], shapePaint);
+        }
+    }
+
+    /**
+     * Calculates the area that is drawn by {@link #onDraw(Canvas, int, int, float, int, int, Paint)}, only
+     * this area of the {@link ShapeRipple} is redrawn when the ripples changes and ripples whose area does
+     * not intersect the clip of the canvas are not drawn at all.
+     * <p>
+     * By default it is the square around the radius size including the stroke of the paint, override this
+     * when the shape is drawn outside of it.
+     *
+     * @param x The x axis if the ripple, x means the middle x-axis.
+     * @param y The y axis if the ripple, y means the middle y-axis.
+     * @param radiusSize The current radius size if the ripple
+     * @param shapePaint The paint of the ripple.
+     * @param outBounds The rect where the bounds of the ripple is written
+     */
+    public void getBounds(int x, int y, float radiusSize, Paint shapePaint, Rect outBounds) {
+        // include the stroke and the anti alias pixel
+        int extent = (int) Math.ceil(radiusSize + shapePaint.getStrokeWidth() / 2) + 1;
+        outBounds.set(x - extent, y - extent, x + extent, y + extent);
+    }
+
+    /**
+     * Draws a ripple whose inner area is covered by an opaque ripple drawn after it, only called when
+     * {@link #isOcclusionSupported()} is true and the paint is filled. Only the ring between the inner
+     * radius and the radius size needs to be drawn.
+     * <p>
+     * By default the whole ripple is drawn with {@link #onDraw(Canvas, int, int, float, int, int, Paint)}.
+     *
+     * @param canvas The canvas where the ripple is drawn
+     * @param x The x axis if the ripple, x means the middle x-axis.
+     * @param y The y axis if the ripple, y means the middle y-axis.
+     * @param radiusSize The current radius size if the ripple
+     * @param innerRadiusSize The radius of the area that is covered, it is smaller than the radius size
+     * @param color The current color of the ripple
+     * @param rippleIndex The index of the ripple, see {@link #onDraw(Canvas, int, int, float, int, int, Paint)}
+     * @param shapePaint The paint of the ripple.
+     */
+    public void onDrawRing(Canvas canvas, int x, int y, float radiusSize, float innerRadiusSize, int color, int rippleIndex, Paint shapePaint) {
+        onDraw(canvas, x, y, radiusSize, color, rippleIndex, shapePaint);
+    }
+
+    /**
+     * Flag for when the shape is only drawn with the color of the ripple and a filled ripple with an opaque color
+     * covers every smaller ripple with the same center. The {@link ShapeRipple} then skips the fully transparent
+     * ripples and draws the covered ripples with {@link #onDrawRing(Canvas, int, int, float, float, int, int, Paint)}.
+     *
+     * @return False by default
+     */
+    public boolean isOcclusionSupported() {
+        return false;
+    }
+
+    /**
+     * Flag for when the shape can be pre-rendered into sprites that are tinted with the color of the ripple,
+     * only used when sprite rendering is enabled in the {@link ShapeRipple}.
+     * <p>
+     * Shapes that draws their own colors or changes by the ripple index should return false.
+     *
+     * @return True by default
+     */
+    public boolean isSpriteSupported() {
+        return true;
+    }
 }
@@ -30,4 +30,23 @@ public class Circle extends BaseShape {
         shapePaint.setColor(color);
         canvas.drawCircle(x, y, radiusSize, shapePaint);
     }
+
+    @Override
+    public void onDrawRing(Canvas canvas, int x, int y, float radiusSize, float innerRadiusSize, int color, int rippleIndex, Paint shapePaint) {
+        float strokeWidth = shapePaint.getStrokeWidth();
+
+        // the ring is a stroke centered between both radius
+        shapePaint.setColor(color);
+        shapePaint.setStyle(Paint.Style.STROKE);
+        shapePaint.setStrokeWidth(radiusSize - innerRadiusSize);
+        canvas.drawCircle(x, y, (radiusSize + innerRadiusSize) / 2, shapePaint);
+
+        shapePaint.setStyle(Paint.Style.FILL);
+        shapePaint.setStrokeWidth(strokeWidth);
+    }
+
+    @Override
+    public boolean isOcclusionSupported() {
+        return true;
+    }
 }
@@ -1,16 +1,31 @@
 package com.rodolfonavalon.shaperipplelibrary.model;
 
 import android.content.Context;
+import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Rect;
 
-public class Image extends BaseShape {
+/**
+ * Draws a drawable resource as the ripple.
+ * <p>
+ * The bitmap is decoded off the main thread and sampled down to the maximum size of the ripples, the
+ * same bitmap is shared by every {@link Image} with the same resource and size. Nothing is drawn until
+ * the bitmap is ready.
+ */
+public class Image extends BaseShape implements ImageBitmapCache.Callback {
+
+    private static final long NO_KEY = -1;
 
     private Bitmap bitmap;
     private Rect rect;
+    private Resources resources;
+
+    /**
+     * The key of the bitmap that is requested from the {@link ImageBitmapCache}
+     */
+    private long bitmapKey = NO_KEY;
 
     private final int bitmapResource;
 
@@ -21,11 +36,69 @@ public class Image extends BaseShape {
     @Override
     public void onSetup(Context context, Paint shapePaint) {
         this.rect = new Rect();
-        this.bitmap = BitmapFactory.decodeResource(context.getResources(), bitmapResource);
+        this.resources = context.getResources();
+
+        requestBitmap();
+    }
+
+    @Override
+    public void setMaxRadius(int maxRadius) {
+        super.setMaxRadius(maxRadius);
+
+        requestBitmap();
+    }
+
+    @Override
+    public void onRelease() {
+        ImageBitmapCache.cancel(this);
+
+        if (bitmap != null) {
+            ImageBitmapCache.release(bitmapKey);
+            bitmap = null;
+        }
+
+        bitmapKey = NO_KEY;
+    }
+
+    /**
+     * Requests the bitmap with the size of the ripple, the current bitmap is kept until the new one is loaded
+     */
+    private void requestBitmap() {
+        // wait until the size of the ripple is known
+        if (resources == null || maxRadius == 0) {
+            return;
+        }
+
+        long key = ImageBitmapCache.key(bitmapResource, maxRadius * 2);
+        if (key == bitmapKey) {
+            return;
+        }
+
+        ImageBitmapCache.cancel(this);
+        ImageBitmapCache.load(resources, bitmapResource, maxRadius * 2, this);
+    }
+
+    @Override
+    public void onBitmapLoaded(long key, Bitmap bitmap) {
+        if (bitmap == null) {
+            return;
+        }
+
+        if (this.bitmap != null) {
+            ImageBitmapCache.release(bitmapKey);
+        }
+
+        this.bitmap = bitmap;
+        this.bitmapKey = key;
     }
 
     @Override
     public void onDraw(Canvas canvas, int x, int y, float radiusSize, int color, int rippleIndex, Paint shapePaint) {
+        // the bitmap is still loading
+        if (bitmap == null) {
+            return;
+        }
+
         int currentImageSize = (int) radiusSize;
 
         // Get the current alpha channel of the color
@@ -36,4 +109,10 @@ public class Image extends BaseShape {
 
         canvas.drawBitmap(bitmap, null, this.rect, shapePaint);
     }
+
+    @Override
+    public boolean isSpriteSupported() {
+        // the bitmap has its own colors
+        return false;
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary.model;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Process wide LRU cache of the bitmaps used by {@link Image}, keyed by the resource and the target size.
+ * <p>
+ * Bitmaps are decoded off the main thread and sampled down to the target size. Each bitmap counts the
+ * {@link Image} that uses it, a bitmap is only recycled when it is evicted and no longer used.
+ * <p>
+ * NOTE: Every method must be called from the main thread.
+ */
+final class ImageBitmapCache {
+
+    /**
+     * The fraction of the maximum memory of the process that the cache can use
+     */
+    private static final int MAX_MEMORY_DIVIDER = 8;
+
+    private static final long MAX_CACHE_BYTES = Runtime.getRuntime().maxMemory() / MAX_MEMORY_DIVIDER;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static final Executor DECODE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /**
+     * The cached bitmaps in the least recently used order
+     */
+    private static final LinkedHashMap<Long, Entry> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The callbacks waiting for a bitmap that is being decoded
+     */
+    private static final Map<Long, List<Callback>> PENDING = new HashMap<>();
+
+    /**
+     * The number of bytes of the cached bitmaps
+     */
+    private static long cacheBytes;
+
+    interface Callback {
+        /**
+         * Called on the main thread when the bitmap is loaded, the bitmap must be released with
+         * {@link #release(long)} when it is no longer used.
+         *
+         * @param key The key of the bitmap
+         * @param bitmap The bitmap or null when it cannot be decoded
+         */
+        void onBitmapLoaded(long key, Bitmap bitmap);
+    }
+
+    private static class Entry {
+        private final Bitmap bitmap;
+        private int references;
+
+        private Entry(Bitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+    }
+
+    private ImageBitmapCache() {}
+
+    /**
+     * @param resource The drawable resource
+     * @param targetSize The minimum width and height of the bitmap in pixel, 0 for the full resolution
+     * @return The key of the bitmap
+     */
+    static long key(int resource, int targetSize) {
+        return ((long) resource << 32) | (targetSize & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Loads the bitmap, the callback is called right away when the bitmap is cached.
+     *
+     * @param resources The resources of the drawable
+     * @param resource The drawable resource
+     * @param targetSize The minimum width and height of the bitmap in pixel, 0 for the full resolution
+     * @param callback The callback of the bitmap
+     */
+    static void load(final Resources resources, final int resource, final int targetSize, Callback callback) {
+        final long key = key(resource, targetSize);
+
+        Entry entry = CACHE.get(key);
+        if (entry != null) {
+            entry.references++;
+            callback.onBitmapLoaded(key, entry.bitmap);
+            return;
+        }
+
+        List<Callback> callbacks = PENDING.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        PENDING.put(key, callbacks);
+
+        DECODE_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap bitmap = decode(resources, resource, targetSize);
+
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onDecoded(key, bitmap);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Removes the callback from the bitmaps that are being decoded
+     */
+    static void cancel(Callback callback) {
+        for (List<Callback> callbacks : PENDING.values()) {
+            callbacks.remove(callback);
+        }
+    }
+
+    /**
+     * Releases a bitmap given by {@link Callback#onBitmapLoaded(long, Bitmap)}
+     *
+     * @param key The key of the bitmap
+     */
+    static void release(long key) {
+        Entry entry = CACHE.get(key);
+        if (entry != null && --entry.references == 0) {
+            trim();
+        }
+    }
+
+    private static void onDecoded(long key, Bitmap bitmap) {
+        List<Callback> callbacks = PENDING.remove(key);
+
+        if (bitmap != null && callbacks != null && !callbacks.isEmpty()) {
+            Entry entry = new Entry(bitmap);
+            entry.references = callbacks.size();
+            CACHE.put(key, entry);
+            cacheBytes += byteCount(bitmap);
+            trim();
+        } else if (bitmap != null) {
+            // nobody is waiting for the bitmap anymore
+            bitmap.recycle();
+            return;
+        }
+
+        if (callbacks == null) {
+            return;
+        }
+
+        for (Callback callback : callbacks) {
+            callback.onBitmapLoaded(key, bitmap);
+        }
+    }
+
+    /**
+     * Evicts the least recently used bitmaps that are not used until the cache fits in the memory budget
+     */
+    private static void trim() {
+        Iterator<Entry> iterator = CACHE.values().iterator();
+        while (cacheBytes > MAX_CACHE_BYTES && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.references > 0) {
+                continue;
+            }
+
+            iterator.remove();
+            cacheBytes -= byteCount(entry.bitmap);
+            entry.bitmap.recycle();
+        }
+    }
+
+    private static Bitmap decode(Resources resources, int resource, int targetSize) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+
+        if (targetSize > 0) {
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(resources, resource, options);
+
+            // the largest power of 2 that keeps the bitmap bigger than the target size
+            int sampleSize = 1;
+            while (Math.min(options.outWidth, options.outHeight) / (sampleSize * 2) >= targetSize) {
+                sampleSize *= 2;
+            }
+
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = sampleSize;
+        }
+
+        return BitmapFactory.decodeResource(resources, resource, options);
+    }
+
+    private static long byteCount(Bitmap bitmap) {
+        return (long) bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary.model;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+import java.util.Arrays;
+
+/**
+ * Base class for shapes that are drawn as a {@link Path}.
+ * <p>
+ * The path is only built once at unit size, the middle of the shape is the origin and 1 is the radius.
+ * Each ripple is drawn with a copy of it scaled to the radius size, a few copies are cached by their
+ * radius in pixel so the same geometry is reused by the ripples and frames with the same radius.
+ */
+public abstract class PathShape extends BaseShape {
+
+    /**
+     * The number of cached paths, each radius has a single slot so the oldest radius of the slot is replaced
+     */
+    private static final int RADIUS_CACHE_SIZE = 64;
+
+    private static final int NO_RADIUS = -1;
+
+    /**
+     * The path of the shape at unit size
+     */
+    private final Path unitPath = new Path();
+
+    /**
+     * The cached paths where the slot is the radius size modulo the {@link #RADIUS_CACHE_SIZE}
+     */
+    private final Path[] radiusPaths = new Path[RADIUS_CACHE_SIZE];
+
+    /**
+     * The radius size of each cached path, {@link #NO_RADIUS} when the slot is empty
+     */
+    private final int[] cachedRadius = new int[RADIUS_CACHE_SIZE];
+
+    private final Matrix matrix = new Matrix();
+
+    @Override
+    public void onSetup(Context context, Paint shapePaint) {
+        unitPath.reset();
+        onCreateUnitPath(unitPath);
+
+        Arrays.fill(cachedRadius, NO_RADIUS);
+    }
+
+    /**
+     * Builds the path of the shape at unit size, the middle of the shape is at (0, 0)
+     * and the shape fits between -1 and 1.
+     *
+     * @param path The empty path where the shape is built
+     */
+    protected abstract void onCreateUnitPath(Path path);
+
+    @Override
+    public void onDraw(Canvas canvas, int x, int y, float radiusSize, int color, int rippleIndex, Paint shapePaint) {
+        shapePaint.setColor(color);
+
+        int saveCount = canvas.save();
+        canvas.translate(x, y);
+        canvas.drawPath(getRadiusPath(Math.round(radiusSize)), shapePaint);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * @param radius The radius size in pixel
+     * @return The path of the shape scaled to the radius with the middle at (0, 0)
+     */
+    private Path getRadiusPath(int radius) {
+        int slot = radius % RADIUS_CACHE_SIZE;
+
+        Path path = radiusPaths[slot];
+        if (path == null) {
+            path = new Path();
+            radiusPaths[slot] = path;
+        } else if (cachedRadius[slot] == radius) {
+            return path;
+        }
+
+        // the path of the slot is reused for the new radius
+        cachedRadius[slot] = radius;
+        return scale(radius, path);
+    }
+
+    private Path scale(int radius, Path outPath) {
+        matrix.setScale(radius, radius);
+        unitPath.transform(matrix, outPath);
+        return outPath;
+    }
+}
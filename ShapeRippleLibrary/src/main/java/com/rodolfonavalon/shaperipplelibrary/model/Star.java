@@ -16,50 +16,25 @@
 
 package com.rodolfonavalon.shaperipplelibrary.model;
 
-import android.content.Context;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.graphics.Path;
 
-public class Star extends BaseShape {
-
-    private Path path;
+public class Star extends PathShape {
 
     @Override
-    public void onSetup(Context context, Paint shapePaint) {
-        path = new Path();
-    }
-
-    @Override
-    public void onDraw(Canvas canvas, int x, int y, float radiusSize, int color, int rippleIndex, Paint shapePaint) {
-
-        //TODO: need to improve performance due to drawing to canvas
-
-        float middleHorizontal = x;
-        float middleVertical = y;
-        float min = 0.0f;
-        float half = radiusSize;
-        middleHorizontal = middleHorizontal - half;
-        middleVertical = middleVertical - half;
-
+    protected void onCreateUnitPath(Path path) {
         // top left
-        path.moveTo(middleHorizontal + half * (0.5f + min) , middleVertical + half * (0.84f + min));
+        path.moveTo(-0.5f, -0.16f);
         // top right
-        path.lineTo(middleHorizontal + half * (1.5f + min), middleVertical + half * (0.84f + min));
+        path.lineTo(0.5f, -0.16f);
         // bottom left
-        path.lineTo(middleHorizontal + half * (0.68f + min), middleVertical + half * (1.45f + min));
+        path.lineTo(-0.32f, 0.45f);
         // top tip
-        path.lineTo(middleHorizontal + half * (1.0f + min), middleVertical + half * (0.5f + min));
+        path.lineTo(0.0f, -0.5f);
         // bottom right
-        path.lineTo(middleHorizontal + half * (1.32f + min), middleVertical + half * (1.45f + min));
+        path.lineTo(0.32f, 0.45f);
         // top left
-        path.lineTo(middleHorizontal + half * (0.5f + min), middleVertical + half * (0.84f + min));
+        path.lineTo(-0.5f, -0.16f);
 
         path.close();
-        shapePaint.setColor(color);
-        canvas.drawPath(path, shapePaint);
-        path.reset();
     }
-
-
-}
\ No newline at end of file
+}
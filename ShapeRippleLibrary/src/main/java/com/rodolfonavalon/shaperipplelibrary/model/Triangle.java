@@ -16,37 +16,18 @@
 
 package com.rodolfonavalon.shaperipplelibrary.model;
 
-import android.content.Context;
-import android.graphics.Canvas;
-import android.graphics.Paint;
 import android.graphics.Path;
 
-public class Triangle extends BaseShape {
-
-    private Path path;
-
-    @Override
-    public void onSetup(Context context, Paint shapePaint) {
-        path = new Path();
-    }
+public class Triangle extends PathShape {
 
     @Override
-    public void onDraw(Canvas canvas, int x, int y, float radiusSize, int color, int rippleIndex, Paint shapePaint) {
-
-        //TODO: need to improve performance due to drawing to canvas
-
-        int mY = (y - (int) radiusSize);
-        int rX = (x - (int) radiusSize);
-        int lX = (x + (int) radiusSize);
-        int bY = (y + (int) radiusSize);
-
-        path.moveTo(x,  mY);
-        path.lineTo(rX, bY);
-        path.lineTo(lX, bY);
+    protected void onCreateUnitPath(Path path) {
+        // top tip
+        path.moveTo(0, -1);
+        // bottom left
+        path.lineTo(-1, 1);
+        // bottom right
+        path.lineTo(1, 1);
         path.close();
-        shapePaint.setColor(color);
-        canvas.drawPath(path, shapePaint);
-        path.reset();
-
     }
 }
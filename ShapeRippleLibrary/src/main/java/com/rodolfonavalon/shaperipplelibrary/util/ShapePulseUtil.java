@@ -19,6 +19,8 @@ package com.rodolfonavalon.shaperipplelibrary.util;
 import android.content.Context;
 import android.graphics.Color;
 
+import com.rodolfonavalon.shaperipplecore.util.ColorUtil;
+
 import java.util.ArrayList;
 
 public class ShapePulseUtil {
@@ -47,20 +49,7 @@ public class ShapePulseUtil {
      * @return The calculate fraction color
      */
     public static int evaluateTransitionColor(float fraction, int startValue, int endValue) {
-        int startA = (startValue >> 24) & 0xff;
-        int startR = (startValue >> 16) & 0xff;
-        int startG = (startValue >> 8) & 0xff;
-        int startB = startValue & 0xff;
-
-        int endA = (endValue >> 24) & 0xff;
-        int endR = (endValue >> 16) & 0xff;
-        int endG = (endValue >> 8) & 0xff;
-        int endB = endValue & 0xff;
-
-        return ((startA + (int) (fraction * (endA - startA))) << 24) |
-                ((startR + (int) (fraction * (endR - startR))) << 16) |
-                ((startG + (int) (fraction * (endG - startG))) << 8) |
-                ((startB + (int) (fraction * (endB - startB))));
+        return ColorUtil.evaluateTransitionColor(fraction, startValue, endValue);
     }
 
     /**
@@ -79,5 +68,14 @@ public class ShapePulseUtil {
         return randomColours;
     }
 
+    /**
+     * Generate an array of random colors based on {@link #DEFAULT_RANDOM_COLOUR_SEQUENCE} colors
+     *
+     * @return The array of colors
+     */
+    public static int[] generateRandomColourArray() {
+        return DEFAULT_RANDOM_COLOUR_SEQUENCE.clone();
+    }
+
 
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ForegroundTrackerTest {
+
+    @Test
+    public void stop_staysInTheForegroundWhenMovingToAnotherActivity() throws Exception {
+        ForegroundTracker<Object> tracker = new ForegroundTracker<>();
+        Object activityA = new Object();
+        Object activityB = new Object();
+
+        // the listener is registered by A after it was started
+        tracker.start(activityA);
+
+        // A starts B: B.onStart then A.onStop
+        assertFalse(tracker.start(activityB));
+        assertFalse(tracker.stop(activityA));
+        assertTrue(tracker.isForeground());
+
+        assertTrue(tracker.stop(activityB));
+        assertFalse(tracker.isForeground());
+    }
+
+    @Test
+    public void start_doesNotCountTheSeededActivityTwice() throws Exception {
+        ForegroundTracker<Object> tracker = new ForegroundTracker<>();
+        Object activity = new Object();
+
+        // the ripple is registered in onCreate before the activity is started
+        tracker.start(activity);
+        assertFalse(tracker.start(activity));
+
+        assertTrue(tracker.stop(activity));
+        assertTrue(tracker.start(activity));
+    }
+
+    @Test
+    public void stop_ignoresActivitiesThatWereNeverStarted() throws Exception {
+        ForegroundTracker<Object> tracker = new ForegroundTracker<>();
+        Object activity = new Object();
+        tracker.start(activity);
+
+        assertFalse(tracker.stop(new Object()));
+        assertTrue(tracker.isForeground());
+    }
+}
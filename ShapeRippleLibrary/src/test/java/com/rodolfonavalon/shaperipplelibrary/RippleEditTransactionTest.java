@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Rodolfo Navalon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.rodolfonavalon.shaperipplelibrary;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RippleEditTransactionTest {
+
+    @Test
+    public void close_appliesTheStrongestPendingChange() throws Exception {
+        RippleEditTransaction transaction = new RippleEditTransaction();
+        transaction.open();
+
+        assertTrue(transaction.deferReconfigure());
+        assertTrue(transaction.deferInitialize());
+        assertTrue(transaction.deferReconfigure());
+
+        assertEquals(RippleEditTransaction.APPLY_INITIALIZE, transaction.close());
+        assertFalse(transaction.isOpen());
+    }
+
+    @Test
+    public void editWithoutApply_doesNotDeferTheLayout() throws Exception {
+        RippleEditTransaction transaction = new RippleEditTransaction();
+        transaction.open();
+        assertTrue(transaction.deferInitialize());
+
+        // the layout creates the ripples with the changes so far even if the edit is never applied
+        transaction.onInitialized();
+        assertTrue(transaction.isOpen());
+
+        // only the changes after the layout are applied
+        assertTrue(transaction.deferReconfigure());
+        assertEquals(RippleEditTransaction.APPLY_RECONFIGURE, transaction.close());
+    }
+
+    @Test
+    public void deferInitialize_whenClosed_runsRightAway() throws Exception {
+        RippleEditTransaction transaction = new RippleEditTransaction();
+        assertFalse(transaction.deferInitialize());
+        assertFalse(transaction.deferReconfigure());
+
+        transaction.open();
+        transaction.close();
+        assertFalse(transaction.deferInitialize());
+        assertEquals(RippleEditTransaction.APPLY_NOTHING, transaction.close());
+    }
+}